@@ -58,5 +58,113 @@ public @interface Command {
      */
     String keyString() default NULL_STRING;
 
+    /**
+     * set the key as an {@code enum} constant, through it's name, where it's {@code enum} is set
+     * in {@link #enumType()}, like {@code @Command(keyEnum = "CLICKED", enumType = Event.class)}
+     *
+     * @return the name of the {@code enum} constant that indicates a key for the Command
+     */
+    String keyEnum() default NULL_STRING;
+
+    /**
+     * set the {@code enum} of the constant set in {@link #keyEnum()}
+     *
+     * @return the {@code enum} class of the key
+     */
+    Class<?> enumType() default Void.class;
+
+    /**
+     * set the key as a {@code Class}, which is executed by passing the same {@code Class} as
+     * the key, like {@code commandsMap.execute(event.getClass(), event)}, where a sub-class of
+     * it is a different key
+     *
+     * @return the {@code Class} that indicates a key for the Command
+     */
+    Class<?> keyClass() default Void.class;
+
+    /**
+     * set the key as a prefix of {@code String} keys, like {@code @Command(keyPrefix = "order.")}
+     * for {@code "order.created"} and {@code "order.cancelled"}, the prefixes are looked up after
+     * the {@link #keyString()} keys, so an exact key is executed instead of it's prefix, and the
+     * longest prefix of a key is executed instead of the shorter ones
+     *
+     * @return the prefix of the {@code String} keys of the Command
+     */
+    String keyPrefix() default NULL_STRING;
+
+    /**
+     * set the key as a range of {@code int} values, from this value to {@link #keyTo()}, both
+     * inclusive, like {@code @Command(keyFrom = 400, keyTo = 499)}, the ranges are looked up after
+     * the {@link #value()} keys, so an exact key is executed instead of it's range, and the
+     * ranges of the same class can not overlap
+     *
+     * @return the first {@code int} value of the range of keys of the Command
+     */
+    int keyFrom() default NULL_INTEGER;
+
+    /**
+     * set the last {@code int} value of the range that starts with {@link #keyFrom()}
+     *
+     * @return the last {@code int} value of the range of keys of the Command
+     */
+    int keyTo() default NULL_INTEGER;
+
+    /**
+     * set the Command to be executed on the {@link java.util.concurrent.Executor} of the
+     * {@link CommandsMap} instead of the calling thread, so the {@code execute()} methods return
+     * without waiting for it, this is meant for slow Commands, while the other Commands keep
+     * executing on the calling thread
+     *
+     * @return {@code true} if the Command should be executed asynchronously
+     */
+    boolean async() default false;
+
+    /**
+     * set the order of this method among the methods that has the same key, where the methods
+     * with a lower order are invoked first, and the methods with the same order are invoked in
+     * the order they are declared in
+     *
+     * @return the order of this method among the methods of the same key
+     */
+    int order() default 0;
+
+    /**
+     * set how the methods that has the same key are invoked, all of these methods should have
+     * the same {@link Pipeline} and the same {@link #async()}
+     *
+     * @return the {@link Pipeline} of the methods of the same key
+     */
+    Pipeline pipeline() default Pipeline.FAN_OUT;
+
+    /**
+     * set the Command to cache the value it returns for every parameters it is invoked with, so
+     * executing or querying it again with equal parameters returns the cached value without
+     * invoking the method, this is meant for pure methods, that return the same value for the
+     * same parameters, and their parameters should be immutable values that implement
+     * {@code equals()} and {@code hashCode()}
+     * <p>
+     * a cacheable method must be the only method of it's key, return a value, take two
+     * parameters at most, and not be {@link #async()}, the exceptions it throws are not cached
+     *
+     * @return {@code true} if the values returned by the Command should be cached
+     */
+    boolean cacheable() default false;
+
+    /**
+     * set the maximum number of values cached for a {@link #cacheable()} Command, where the
+     * values that were not returned recently are evicted first when the cache is full, it should
+     * be between {@code 1} and {@code 65536}, and the cache grows up to it as the values are added
+     *
+     * @return the maximum number of parameters that the Command caches it's values for
+     */
+    int cacheSize() default 256;
+
+    /**
+     * set the time after which a cached value of a {@link #cacheable()} Command expires, and the
+     * method is invoked again, the default is {@code 0}, where the cached values do not expire
+     *
+     * @return the time in milliseconds that a value stays cached, or {@code 0}
+     */
+    long cacheMillis() default 0;
 
 }
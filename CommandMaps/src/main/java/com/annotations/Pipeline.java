@@ -0,0 +1,26 @@
+package com.annotations;
+
+/**
+ * the way the methods that are annotated with {@link Command} with the same key are invoked, in
+ * the order of their {@link Command#order()}, all of them are generated as one command, so they
+ * are invoked through one lookup of their key
+ */
+public enum Pipeline {
+
+    /**
+     * every method is invoked
+     */
+    FAN_OUT,
+
+    /**
+     * the methods are invoked until one of them returns {@code true}, so every method except the
+     * last one should return a {@code boolean}
+     */
+    FIRST_MATCH,
+
+    /**
+     * the next method is invoked only if the previous method has thrown a
+     * {@link RuntimeException}, and the exception of the last method is thrown to the caller
+     */
+    FALLBACK
+}
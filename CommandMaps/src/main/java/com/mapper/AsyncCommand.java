@@ -0,0 +1,61 @@
+package com.mapper;
+
+/**
+ * a command that is executed on the {@link java.util.concurrent.Executor} of a
+ * {@link CommandsMap}, where the generated command is already resolved to it's index on the
+ * calling thread, or it's key is kept to look it up in the added commands
+ * <p>
+ * the errors of the commands that are executed through a {@link java.util.concurrent.Future} are
+ * thrown to it, and the errors of the other commands are passed to the {@link ErrorHandler} of
+ * the {@link CommandsMap}, as no caller waits for them
+ */
+final class AsyncCommand implements Runnable {
+
+    private final CommandsMap commandsMap;
+    private final int index;
+    private final Object key;
+    private final Object parameterOne;
+    private final Object parameterTwo;
+    private final boolean twoParameters;
+    private final boolean handlingErrors;
+
+    AsyncCommand(CommandsMap commandsMap,
+                 int index,
+                 Object key,
+                 Object parameterOne,
+                 Object parameterTwo,
+                 boolean twoParameters,
+                 boolean handlingErrors) {
+        this.commandsMap = commandsMap;
+        this.index = index;
+        this.key = key;
+        this.parameterOne = parameterOne;
+        this.parameterTwo = parameterTwo;
+        this.twoParameters = twoParameters;
+        this.handlingErrors = handlingErrors;
+    }
+
+    @Override
+    public void run() {
+        if (!handlingErrors) {
+            execute();
+            return;
+        }
+
+        try {
+            execute();
+        } catch (Throwable e) {
+            commandsMap.asyncCommandFailed(index, e);
+        }
+    }
+
+    private void execute() {
+        if (index != CommandsMap.NO_COMMAND) {
+            commandsMap.invokeCommand(index, parameterOne, parameterTwo);
+        } else if (twoParameters) {
+            commandsMap.executeAddedBiCommand(key, parameterOne, parameterTwo);
+        } else {
+            commandsMap.executeAddedCommand(key, parameterOne);
+        }
+    }
+}
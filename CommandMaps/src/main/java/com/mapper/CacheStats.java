@@ -0,0 +1,88 @@
+package com.mapper;
+
+/**
+ * a snapshot of the cache of one {@link com.annotations.Command#cacheable()} command, taken
+ * through {@link CommandsMap#getCacheStats()}, it does not change after it is taken
+ */
+public final class CacheStats {
+
+    private final Object key;
+    private final int size;
+    private final int capacity;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    CacheStats(Object key, int size, int capacity, long hits, long misses, long evictions) {
+        this.key = key;
+        this.size = size;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * @return the key that was set in the {@link com.annotations.Command} annotation
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of values that are cached
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the maximum number of values that can be cached, which is set in
+     * {@link com.annotations.Command#cacheSize()}
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of times a cached value was returned without invoking the command
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of times the command was invoked, as no value was cached for it's
+     * parameters, or the cached value has expired
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of values that were removed to cache new values in a full cache
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the ratio of the hits to all the reads of the cache, between {@code 0} and
+     * {@code 1}
+     */
+    public double getHitRate() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{key=" + key
+                + ", size=" + size
+                + ", capacity=" + capacity
+                + ", hits=" + hits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + "}";
+    }
+}
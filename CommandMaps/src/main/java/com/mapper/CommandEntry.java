@@ -0,0 +1,30 @@
+package com.mapper;
+
+/**
+ * an entry in the table of the commands added through {@link CommandsMap#addCommand(Object, Command)}
+ * and {@link CommandsMap#addBiCommand(Object, BiCommand)}, where a {@link Command} is adapted to
+ * a {@link BiCommand} once when it is added, so executing any entry is a single call
+ */
+final class CommandEntry {
+
+    final BiCommand command;
+    final boolean biCommand;
+
+    private CommandEntry(BiCommand command, boolean biCommand) {
+        this.command = command;
+        this.biCommand = biCommand;
+    }
+
+    static CommandEntry of(final Command command) {
+        return new CommandEntry(new BiCommand() {
+            @Override
+            public void accept(Object parameterOne, Object parameterTwo) {
+                command.accept(parameterOne);
+            }
+        }, false);
+    }
+
+    static CommandEntry of(BiCommand biCommand) {
+        return new CommandEntry(biCommand, true);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mapper;
+
+/**
+ * a snapshot of the {@link CommandsMetrics} of one command, taken through
+ * {@link CommandsMetrics#snapshot()}, it does not change after it is taken
+ */
+public final class CommandStats {
+
+    private final Object key;
+    private final long calls;
+    private final long errors;
+    private final long totalNanos;
+    private final long[] latencies;
+
+    CommandStats(Object key, long calls, long errors, long totalNanos, long[] latencies) {
+        this.key = key;
+        this.calls = calls;
+        this.errors = errors;
+        this.totalNanos = totalNanos;
+        this.latencies = latencies;
+    }
+
+    /**
+     * @return the key that was set in the {@link com.annotations.Command} annotation
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of times the command was invoked, including the failed invocations
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return the number of times the command has thrown
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the average time taken by the command, in nanoseconds
+     */
+    public long getMeanNanos() {
+        long measuredCalls = calls - errors;
+        return measuredCalls <= 0 ? 0 : totalNanos / measuredCalls;
+    }
+
+    /**
+     * @param percentile the percentile between {@code 0} and {@code 100}, like {@code 99.9}
+     * @return the time that the passed percentage of the invocations took less than or equal to,
+     * in nanoseconds, rounded up by less than {@code 1 / 32} of it
+     */
+    public long getPercentileNanos(double percentile) {
+        return LatencyHistogram.valueAtPercentile(latencies, percentile);
+    }
+
+    /**
+     * @return the longest time taken by the command, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return getPercentileNanos(100);
+    }
+
+    @Override
+    public String toString() {
+        return "CommandStats{key=" + key
+                + ", calls=" + calls
+                + ", errors=" + errors
+                + ", meanNanos=" + getMeanNanos()
+                + ", p50Nanos=" + getPercentileNanos(50)
+                + ", p99Nanos=" + getPercentileNanos(99)
+                + ", maxNanos=" + getMaxNanos()
+                + "}";
+    }
+}
@@ -2,7 +2,21 @@ package com.mapper;
 
 import com.annotations.CommandsMapFactory;
 
-import java.util.LinkedHashMap;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * a map of commands that can be executed based on a key for each one, to create an instance of
@@ -17,13 +31,59 @@ import java.util.LinkedHashMap;
  * so you should build the project before invoking {@link #of(Object)} for the generated class to
  * be available
  * <p>
+ * a {@link CommandsMap} can be executed from multiple threads, executing a command does not
+ * lock, the host object is held in a {@code volatile} field so that {@link #clear()} is visible
+ * to all the threads immediately, and the added commands table is copied on every change, so it
+ * is never modified after being published to the executing threads
+ * <p>
  * Created by Ahmed Adel Ismail on 9/9/2017.
  */
 public class CommandsMap extends CommandsMapInitializer {
 
-    private final LinkedHashMap<Object, Command> commands = new LinkedHashMap<>();
-    private final LinkedHashMap<Object, BiCommand> biCommands = new LinkedHashMap<>();
-    private Object commandsMapFactory;
+    /**
+     * the value returned by the {@code indexOf...()} methods when the passed key is not mapped
+     * to any generated command
+     */
+    protected static final int NO_COMMAND = -1;
+
+    /**
+     * the minimum average length of the runs of equal keys in a batch passed to
+     * {@link #executeAll(Object[], Object[])} to group it's events by their commands
+     */
+    private static final int MIN_AVERAGE_RUN_LENGTH = 8;
+
+    /**
+     * the minimum time between two messages printed by the default {@link MissHandler} and
+     * {@link ErrorHandler}
+     */
+    private static final long DEFAULT_LOG_INTERVAL_MILLIS = 1000;
+
+    /**
+     * the generated commands are dispatched through the {@code switch} statements of the
+     * generated class, which are shared by all it's instances, so this table is only allocated
+     * when {@link #addCommand(Object, Command)} or {@link #addBiCommand(Object, BiCommand)} are
+     * invoked, and every instance that does not add commands holds only the host object
+     */
+    private volatile Map<Object, CommandEntry> addedCommands = Collections.emptyMap();
+    private volatile Object commandsMapFactory;
+    private volatile WeakReference<Object> weakCommandsMapFactory;
+    private volatile Executor executor;
+    private volatile CommandsMapListener listener;
+    private volatile MissHandler missHandler;
+    private volatile ErrorHandler errorHandler;
+
+    /**
+     * the caches of the {@link com.annotations.Command#cacheable()} commands, at the indexes of
+     * their commands, which are allocated on the first execution of a cacheable command, so the
+     * instances that has no cacheable commands hold nothing
+     */
+    private volatile AtomicReferenceArray<ResultsCache> caches;
+
+    private static volatile Executor defaultExecutor;
+    private static volatile MissHandler defaultMissHandler =
+            CommandsPolicy.log(DEFAULT_LOG_INTERVAL_MILLIS);
+    private static volatile ErrorHandler defaultErrorHandler =
+            CommandsPolicy.log(DEFAULT_LOG_INTERVAL_MILLIS);
 
     /**
      * set the instance that is annotated with {@link CommandsMapFactory}
@@ -32,24 +92,800 @@ public class CommandsMap extends CommandsMapInitializer {
      *                           {@link CommandsMap}
      */
     public final void setCommandsMapFactory(Object commandsMapFactory) {
+        this.weakCommandsMapFactory = null;
         this.commandsMapFactory = commandsMapFactory;
+        clearCache();
+    }
+
+    /**
+     * set the instance that is annotated with {@link CommandsMapFactory} through a
+     * {@link WeakReference}, so this {@link CommandsMap} does not keep it from being garbage
+     * collected, and after it is collected, the commands are passed to
+     * {@link MissHandler#onCleared(CommandsMap, int)} as if {@link #clear()} was invoked, where
+     * the first of them releases the added commands of this {@link CommandsMap}
+     *
+     * @param commandsMapFactory the instance that holds the methods to be added in the
+     *                           {@link CommandsMap}
+     * @see #ofWeak(Object)
+     */
+    public final void setWeakCommandsMapFactory(Object commandsMapFactory) {
+        this.commandsMapFactory = null;
+        this.weakCommandsMapFactory = new WeakReference<>(commandsMapFactory);
+        clearCache();
+    }
+
+    /**
+     * set the {@link Executor} of the commands annotated with
+     * {@link com.annotations.Command#async()}, and of the {@code executeAsync()} methods, if not
+     * set, the {@link #setDefaultExecutor(Executor) default executor} is used
+     *
+     * @param executor the {@link Executor} of this {@link CommandsMap}
+     */
+    public final void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * set the {@link Executor} of all the {@link CommandsMap} instances that has no
+     * {@link #setExecutor(Executor) executor} set, if not set, a cached thread pool of daemon
+     * threads is used, on Java 21 and above, {@code Executors.newVirtualThreadPerTaskExecutor()}
+     * can be passed to execute every command on a virtual thread
+     *
+     * @param executor the default {@link Executor}
+     */
+    public static void setDefaultExecutor(Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * set the {@link MissHandler} of the keys that this {@link CommandsMap} can not execute, if
+     * not set, the {@link #setDefaultMissHandler(MissHandler) default miss handler} is used
+     *
+     * @param missHandler the {@link MissHandler} of this {@link CommandsMap}, like the policies
+     *                    of {@link CommandsPolicy}
+     */
+    public final void setMissHandler(MissHandler missHandler) {
+        this.missHandler = missHandler;
+    }
+
+    /**
+     * set the {@link MissHandler} of all the {@link CommandsMap} instances that has no
+     * {@link #setMissHandler(MissHandler) miss handler} set, if not set, the misses of all the
+     * instances share a {@link CommandsPolicy#log(long)} policy that prints one message per second
+     *
+     * @param missHandler the default {@link MissHandler}
+     */
+    public static void setDefaultMissHandler(MissHandler missHandler) {
+        defaultMissHandler = missHandler;
+    }
+
+    /**
+     * set the {@link ErrorHandler} of the errors thrown by the commands that no caller waits for,
+     * if not set, the {@link #setDefaultErrorHandler(ErrorHandler) default error handler} is used
+     *
+     * @param errorHandler the {@link ErrorHandler} of this {@link CommandsMap}, like the policies
+     *                     of {@link CommandsPolicy}
+     */
+    public final void setErrorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * set the {@link ErrorHandler} of all the {@link CommandsMap} instances that has no
+     * {@link #setErrorHandler(ErrorHandler) error handler} set, if not set, the errors of all the
+     * instances share a {@link CommandsPolicy#log(long)} policy that prints one error per second
+     *
+     * @param errorHandler the default {@link ErrorHandler}
+     */
+    public static void setDefaultErrorHandler(ErrorHandler errorHandler) {
+        defaultErrorHandler = errorHandler;
+    }
+
+    private MissHandler missHandler() {
+        MissHandler missHandler = this.missHandler;
+        return missHandler != null ? missHandler : defaultMissHandler;
+    }
+
+    private ErrorHandler errorHandler() {
+        ErrorHandler errorHandler = this.errorHandler;
+        return errorHandler != null ? errorHandler : defaultErrorHandler;
+    }
+
+    /**
+     * set the {@link CommandsMapListener} that is notified with every command executed by this
+     * {@link CommandsMap}, the commands are measured only while a listener is set
+     *
+     * @param listener the {@link CommandsMapListener}, or {@code null} to stop measuring the
+     *                 commands
+     */
+    public final void setListener(CommandsMapListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * start counting the invocations, errors and misses of this {@link CommandsMap}, and
+     * recording the latencies of it's commands, this replaces the
+     * {@link #setListener(CommandsMapListener) listener} if it was set
+     *
+     * @return the {@link CommandsMetrics} of this {@link CommandsMap}, the same instance is
+     * returned as long as the listener is not replaced
+     */
+    public final synchronized CommandsMetrics enableMetrics() {
+        if (!(listener instanceof CommandsMetrics)) {
+            listener = new CommandsMetrics(this);
+        }
+        return (CommandsMetrics) listener;
+    }
+
+    /**
+     * get the key of a command, to be used by the {@link CommandsMapListener} to identify the
+     * command
+     *
+     * @param command the index of the command that is passed to the {@link CommandsMapListener}
+     * @return the key that was set in the {@link com.annotations.Command} annotation
+     */
+    public final Object getCommandKey(int command) {
+        return keyOf(command);
+    }
+
+    private Executor executor() {
+        Executor executor = this.executor;
+        if (executor != null) {
+            return executor;
+        }
+        executor = defaultExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (CommandsMap.class) {
+            if (defaultExecutor == null) {
+                defaultExecutor = newDaemonThreadPool();
+            }
+            return defaultExecutor;
+        }
+    }
+
+    private static ExecutorService newDaemonThreadPool() {
+        return Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, CommandsMap.class.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
     }
 
+    /**
+     * get the host object, the generated code reads it once for every command, so a command is
+     * either invoked on the host object, or not invoked at all if {@link #clear()} was invoked
+     * before, the weak reference is read only if there is no host object held strongly, so the
+     * commands of the strongly held host objects cost one {@code null} check
+     *
+     * @return the instance that is annotated with {@link CommandsMapFactory}, or {@code null}
+     * if cleared or garbage collected
+     */
     @SuppressWarnings("unchecked")
     protected final <T> T getHostObject() {
-        if (commandsMapFactory != null) {
-            return (T) commandsMapFactory;
-        } else {
+        Object commandsMapFactory = this.commandsMapFactory;
+        return (T) (commandsMapFactory != null ? commandsMapFactory : weakHostObject());
+    }
+
+    private Object weakHostObject() {
+        WeakReference<Object> weakCommandsMapFactory = this.weakCommandsMapFactory;
+        if (weakCommandsMapFactory == null) {
             return null;
         }
+        Object commandsMapFactory = weakCommandsMapFactory.get();
+        if (commandsMapFactory == null) {
+            release(weakCommandsMapFactory);
+        }
+        return commandsMapFactory;
+    }
+
+    /**
+     * clear this {@link CommandsMap} after it's weakly held host object was garbage collected,
+     * unless another host object was set meanwhile
+     */
+    private synchronized void release(WeakReference<Object> collected) {
+        if (weakCommandsMapFactory == collected) {
+            weakCommandsMapFactory = null;
+            addedCommands = Collections.emptyMap();
+            clearCache();
+        }
+    }
+
+    /**
+     * @return {@code true} if this {@link CommandsMap} holds it's host object strongly, and
+     * {@link #clear()} was not invoked
+     */
+    final boolean holdsHostObject() {
+        return commandsMapFactory != null;
     }
 
     protected void addCommand(Object key, Command command) {
-        commands.put(key, command);
+        putAddedCommand(key, CommandEntry.of(command));
     }
 
     protected void addBiCommand(Object key, BiCommand biCommand) {
-        biCommands.put(key, biCommand);
+        putAddedCommand(key, CommandEntry.of(biCommand));
+    }
+
+    synchronized void putAddedCommands(Map<Object, CommandEntry> entries) {
+        HashMap<Object, CommandEntry> newAddedCommands = new HashMap<>(addedCommands);
+        newAddedCommands.putAll(entries);
+        addedCommands = newAddedCommands;
+    }
+
+    private synchronized void putAddedCommand(Object key, CommandEntry entry) {
+        HashMap<Object, CommandEntry> newAddedCommands = new HashMap<>(addedCommands);
+        newAddedCommands.put(key, entry);
+        addedCommands = newAddedCommands;
+    }
+
+    /**
+     * the generated sub-classes override this method with a {@code switch} on the {@code int}
+     * keys that returns the index of the mapped command
+     *
+     * @param key the {@code int} key that was set in the {@link com.annotations.Command} annotation
+     * @return the index of the command to be passed to {@link #invoke(int, Object, Object)},
+     * or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfInt(int key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * the generated sub-classes override this method to return the index of the command mapped
+     * to the passed {@code long} key
+     *
+     * @param key the {@code long} key that was set in the {@link com.annotations.Command} annotation
+     * @return the index of the command, or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfLong(long key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * the generated sub-classes override this method to return the index of the command mapped
+     * to the passed {@code float} key
+     *
+     * @param key the {@code float} key that was set in the {@link com.annotations.Command} annotation
+     * @return the index of the command, or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfFloat(float key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * the generated sub-classes override this method to return the index of the command mapped
+     * to the passed {@code double} key
+     *
+     * @param key the {@code double} key that was set in the {@link com.annotations.Command} annotation
+     * @return the index of the command, or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfDouble(double key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * the generated sub-classes override this method with a {@code switch} on the {@code String}
+     * keys that returns the index of the mapped command, or with a perfect hash of the keys if
+     * they are too many for one {@code switch}
+     *
+     * @param key the {@code String} key that was set in the {@link com.annotations.Command} annotation
+     * @return the index of the command, or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfString(String key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * the generated sub-classes override this method to return the index of the command mapped
+     * to the passed {@code enum} constant, through an array of the ordinals of every
+     * {@code enum} type, that is created by {@link #commandsOfOrdinals(int, int...)}
+     *
+     * @param key the {@code enum} constant that was set in the {@link com.annotations.Command}
+     *            annotation
+     * @return the index of the command, or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfEnum(Enum<?> key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * the generated sub-classes override this method to return the index of the command mapped
+     * to the passed {@code Class}, which is compared by identity
+     *
+     * @param key the {@code Class} that was set in the {@link com.annotations.Command} annotation
+     * @return the index of the command, or {@link #NO_COMMAND} if not mapped
+     */
+    protected int indexOfClass(Class<?> key) {
+        return NO_COMMAND;
+    }
+
+    /**
+     * create the array that maps the ordinals of an {@code enum} to the indexes of their
+     * commands, the ordinals are read when the generated class is initialized, so adding
+     * constants to the {@code enum} does not break a {@link CommandsMap} compiled before them
+     *
+     * @param ordinalsCount       the number of the constants of the {@code enum}
+     * @param ordinalsAndCommands pairs of the ordinal of a constant, and the index of it's command
+     * @return an array that holds the index of the command of every ordinal, or
+     * {@link #NO_COMMAND} for the constants that are not mapped
+     */
+    protected static int[] commandsOfOrdinals(int ordinalsCount, int... ordinalsAndCommands) {
+        int[] commands = new int[ordinalsCount];
+        Arrays.fill(commands, NO_COMMAND);
+        for (int i = 0; i < ordinalsAndCommands.length; i += 2) {
+            commands[ordinalsAndCommands[i]] = ordinalsAndCommands[i + 1];
+        }
+        return commands;
+    }
+
+    /**
+     * find the command of the longest prefix of the passed key in a trie of prefixes, which is
+     * generated as the chars of a {@code String}, where the nodes of the trie are numbered from
+     * the root node {@code 0}, and it's layout is :
+     * <ul>
+     * <li>the number of the nodes</li>
+     * <li>the first edge of every node, followed by the number of the edges</li>
+     * <li>the index of the command of every node plus one, or zero if it has no command</li>
+     * <li>the char of every edge, where the edges of a node are sorted by their chars</li>
+     * <li>the node that every edge leads to</li>
+     * </ul>
+     * so every char of the key is looked up through a binary search in the edges of one node
+     *
+     * @param key  the key passed to the {@code execute()} methods
+     * @param trie the generated trie of the prefixes
+     * @return the index of the command of the longest prefix of the key, or {@link #NO_COMMAND}
+     * if it has no prefix in the trie
+     */
+    protected static int indexOfPrefix(String key, char[] trie) {
+        int nodesCount = trie[0];
+        int commands = nodesCount + 2;
+        int chars = commands + nodesCount;
+        int targets = chars + trie[nodesCount + 1];
+        int command = NO_COMMAND;
+        int node = 0;
+        for (int i = 0, length = key.length(); i < length; i++) {
+            int edge = edgeOf(trie, chars + trie[node + 1], chars + trie[node + 2], key.charAt(i));
+            if (edge < 0) {
+                break;
+            }
+            node = trie[targets + edge - chars];
+            if (trie[commands + node] != 0) {
+                command = trie[commands + node] - 1;
+            }
+        }
+        return command;
+    }
+
+    /**
+     * a binary search of the sorted chars of the edges of a node, most nodes of a trie of
+     * prefixes has one edge, which is found on the first comparison
+     */
+    private static int edgeOf(char[] trie, int from, int to, char c) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char edgeChar = trie[middle];
+            if (edgeChar < c) {
+                low = middle + 1;
+            } else if (edgeChar > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * the generated sub-classes override this method if they have
+     * {@link com.annotations.Command#keyPrefix() key prefixes} or
+     * {@link com.annotations.Command#keyFrom() key ranges}, which are not found by looking up the
+     * key returned by {@link #keyOf(int)}
+     *
+     * @param index the index of the command
+     * @return {@code true} if the key of the command is a prefix or a range of keys
+     */
+    protected boolean isKeyPattern(int index) {
+        return false;
+    }
+
+    /**
+     * invoked by the generated commands when they are executed after {@link #clear()}, to pass
+     * the command to the {@link MissHandler}
+     *
+     * @param index the index of the command
+     */
+    protected final void commandCleared(int index) {
+        missHandler().onCleared(this, index);
+    }
+
+    /**
+     * invoked by the generated commands that take a primitive parameter after their second
+     * parameter, when they are executed through the methods that pass two parameters at most,
+     * as a primitive parameter can not be passed as {@code null}
+     *
+     * @param index the index of the command
+     * @throws IllegalArgumentException always, telling the caller to execute the command through
+     *                                  {@link #executeWith(Object, Object...)}
+     */
+    protected final void parametersMissing(int index) throws IllegalArgumentException {
+        throw new IllegalArgumentException("the command of the key " + keyOf(index)
+                + " takes primitive parameters after it's second parameter, execute it through"
+                + " executeWith() or queryWith()");
+    }
+
+    /**
+     * the generated sub-classes override this method to return the number of their commands,
+     * where the indexes of the commands are from zero to this number, exclusive
+     *
+     * @return the number of generated commands
+     */
+    protected int commandsCount() {
+        return 0;
+    }
+
+    /**
+     * the generated sub-classes override this method to return the key of a command, it is not
+     * used while executing the commands, but to report them
+     *
+     * @param index the index of the command
+     * @return the key that was set in the {@link com.annotations.Command} annotation, or
+     * {@code null} if the index is not mapped to any command
+     */
+    protected Object keyOf(int index) {
+        return null;
+    }
+
+    /**
+     * the generated sub-classes override this method to invoke the method of the host object
+     * directly, where the passed index is the value returned from one of the {@code indexOf...()}
+     * methods
+     *
+     * @param index        the index of the command
+     * @param parameterOne the first parameter, or {@code null}
+     * @param parameterTwo the second parameter, or {@code null}
+     */
+    protected void invoke(int index, Object parameterOne, Object parameterTwo) {
+        // no generated commands
+    }
+
+    /**
+     * the generated sub-classes override this method to invoke the method of the host object
+     * for every parameter in a loop, after resolving the command once
+     *
+     * @param index      the index of the command
+     * @param parameters the parameters, where every parameter is passed to one invocation
+     * @param from       the index of the first parameter, inclusive
+     * @param to         the index of the last parameter, exclusive
+     */
+    protected void invokeAll(int index, Object[] parameters, int from, int to) {
+        for (int i = from; i < to; i++) {
+            invoke(index, parameters[i], null);
+        }
+    }
+
+    /**
+     * the generated sub-classes override this method if they have methods that take more than
+     * two parameters, to invoke the method of the host object with all the passed parameters
+     *
+     * @param index      the index of the command
+     * @param parameters the parameters, where the missing parameters are passed as {@code null}
+     */
+    protected void invokeWith(int index, Object[] parameters) {
+        invoke(index, parameterAt(parameters, 0), parameterAt(parameters, 1));
+    }
+
+    /**
+     * the generated sub-classes override this method to invoke the method of the host object,
+     * and return the value that it returns
+     *
+     * @param index        the index of the command
+     * @param parameterOne the first parameter, or {@code null}
+     * @param parameterTwo the second parameter, or {@code null}
+     * @return the value returned by the last invoked method, or {@code null} if it is
+     * {@code void}
+     */
+    protected Object call(int index, Object parameterOne, Object parameterTwo) {
+        invoke(index, parameterOne, parameterTwo);
+        return null;
+    }
+
+    /**
+     * the generated sub-classes override this method if they have methods that take more than
+     * two parameters, to invoke the method of the host object with all the passed parameters, and
+     * return the value that it returns
+     *
+     * @param index      the index of the command
+     * @param parameters the parameters, where the missing parameters are passed as {@code null}
+     * @return the value returned by the last invoked method, or {@code null} if it is
+     * {@code void}
+     */
+    protected Object callWith(int index, Object[] parameters) {
+        return call(index, parameterAt(parameters, 0), parameterAt(parameters, 1));
+    }
+
+    /**
+     * @return the parameter at the passed position, or {@code null} if less parameters are passed
+     */
+    protected static Object parameterAt(Object[] parameters, int position) {
+        return position < parameters.length ? parameters[position] : null;
+    }
+
+    /**
+     * the generated typed methods execute the host methods directly when no listener is set, or
+     * through {@link #executeWith(Object, Object...)} to be measured by the listener
+     *
+     * @return {@code true} if a {@link CommandsMapListener} is set
+     */
+    protected final boolean hasListener() {
+        return listener != null;
+    }
+
+    /**
+     * the generated sub-classes override this method if they have commands annotated with
+     * {@link com.annotations.Command#async()}
+     *
+     * @param index the index of the command
+     * @return {@code true} if the command should be invoked on the {@link Executor} of this
+     * {@link CommandsMap}
+     */
+    protected boolean isAsync(int index) {
+        return false;
+    }
+
+    /**
+     * the generated sub-classes override this method if they have commands annotated with
+     * {@link com.annotations.Command#cacheable()}
+     *
+     * @param index the index of the command
+     * @return the maximum number of values cached for the command, or {@code 0} if it is not
+     * cacheable
+     */
+    protected int cacheSizeOf(int index) {
+        return 0;
+    }
+
+    /**
+     * the generated sub-classes override this method if they have cacheable commands with a
+     * {@link com.annotations.Command#cacheMillis()}
+     *
+     * @param index the index of the command
+     * @return the time in milliseconds that a value of the command stays cached, or {@code 0}
+     * if it's values do not expire
+     */
+    protected long cacheMillisOf(int index) {
+        return 0;
+    }
+
+    /**
+     * invoked by the generated cacheable commands before invoking their method, the missing
+     * parameters are passed as {@code null}
+     *
+     * @param index        the index of the command
+     * @param parameterOne the first parameter of the command, or {@code null}
+     * @param parameterTwo the second parameter of the command, or {@code null}
+     * @return the value cached for the passed parameters, or a value that
+     * {@link #isNotCached(Object)} if no value is cached, which is passed back to
+     * {@link #cacheResult(int, Object, Object, Object, Object)}
+     */
+    protected final Object cachedResult(int index, Object parameterOne, Object parameterTwo) {
+        return cacheOf(index).get(parameterOne, parameterTwo);
+    }
+
+    /**
+     * invoked by the generated cacheable commands after their method returns, so the exceptions
+     * it throws are not cached
+     *
+     * @param index        the index of the command
+     * @param parameterOne the first parameter of the command, or {@code null}
+     * @param parameterTwo the second parameter of the command, or {@code null}
+     * @param notCached    the value returned by {@link #cachedResult(int, Object, Object)}
+     *                     before the method was invoked, so the value is not cached if the
+     *                     cache was cleared while the method was running
+     * @param result       the value returned by the method, which can be {@code null}
+     * @return the passed result
+     */
+    protected final Object cacheResult(int index, Object parameterOne, Object parameterTwo,
+                                       Object notCached, Object result) {
+        cacheOf(index).put(parameterOne, parameterTwo, notCached, result);
+        return result;
+    }
+
+    /**
+     * @param result the value returned by {@link #cachedResult(int, Object, Object)}
+     * @return {@code true} if no value was cached for the parameters of the command
+     */
+    protected static boolean isNotCached(Object result) {
+        return result instanceof ResultsCache.Miss;
+    }
+
+    private ResultsCache cacheOf(int index) {
+        AtomicReferenceArray<ResultsCache> caches = this.caches;
+        if (caches == null) {
+            caches = newCaches();
+        }
+        ResultsCache cache = caches.get(index);
+        if (cache == null) {
+            caches.compareAndSet(index, null,
+                    new ResultsCache(keyOf(index), cacheSizeOf(index), cacheMillisOf(index)));
+            cache = caches.get(index);
+        }
+        return cache;
+    }
+
+    private synchronized AtomicReferenceArray<ResultsCache> newCaches() {
+        if (caches == null) {
+            caches = new AtomicReferenceArray<>(commandsCount());
+        }
+        return caches;
+    }
+
+    /**
+     * take a snapshot of the caches of the {@link com.annotations.Command#cacheable()} commands,
+     * the counters are read while the commands are being executed, so a snapshot may miss the
+     * reads that are running while it is taken
+     *
+     * @return the {@link CacheStats} of every cacheable command that was executed at least once,
+     * in the order of the methods in the host class
+     */
+    public final List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        AtomicReferenceArray<ResultsCache> caches = this.caches;
+        for (int index = 0; caches != null && index < caches.length(); index++) {
+            ResultsCache cache = caches.get(index);
+            if (cache != null) {
+                stats.add(cache.stats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * remove the values cached by the {@link com.annotations.Command#cacheable()} commands, so
+     * their methods are invoked again, this is done when the host object is set or cleared as
+     * well, while the counters of the caches are kept
+     */
+    public final void clearCache() {
+        AtomicReferenceArray<ResultsCache> caches = this.caches;
+        for (int index = 0; caches != null && index < caches.length(); index++) {
+            ResultsCache cache = caches.get(index);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * execute a generated command that it's index was already looked up, on the
+     * {@link Executor} if it is {@link com.annotations.Command#async()}, or on the calling thread
+     */
+    void dispatch(int index, Object parameterOne, Object parameterTwo) {
+        if (isAsync(index)) {
+            executor().execute(new AsyncCommand(this, index, null, parameterOne, parameterTwo, true, true));
+        } else {
+            invokeCommand(index, parameterOne, parameterTwo);
+        }
+    }
+
+    /**
+     * invoke a generated command, and notify the {@link CommandsMapListener} if it was set, the
+     * listener is read once, so when no listener is set, this costs a single {@code null} check
+     */
+    void invokeCommand(int index, Object parameterOne, Object parameterTwo) {
+        CommandsMapListener listener = this.listener;
+        if (listener == null) {
+            invoke(index, parameterOne, parameterTwo);
+        } else {
+            invokeListened(listener, index, parameterOne, parameterTwo);
+        }
+    }
+
+    private void invokeListened(CommandsMapListener listener, int index,
+                                Object parameterOne, Object parameterTwo) {
+        long start = System.nanoTime();
+        try {
+            invoke(index, parameterOne, parameterTwo);
+        } catch (Throwable e) {
+            listener.onFailed(this, index, e);
+            throw e;
+        }
+        listener.onExecuted(this, index, 1, System.nanoTime() - start);
+    }
+
+    private Object callCommand(int index, Object parameterOne, Object parameterTwo) {
+        CommandsMapListener listener = this.listener;
+        if (listener == null) {
+            return call(index, parameterOne, parameterTwo);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(index, parameterOne, parameterTwo);
+        } catch (Throwable e) {
+            listener.onFailed(this, index, e);
+            throw e;
+        }
+        listener.onExecuted(this, index, 1, System.nanoTime() - start);
+        return result;
+    }
+
+    private Object callCommandWith(int index, Object[] parameters) {
+        CommandsMapListener listener = this.listener;
+        if (listener == null) {
+            return callWith(index, parameters);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = callWith(index, parameters);
+        } catch (Throwable e) {
+            listener.onFailed(this, index, e);
+            throw e;
+        }
+        listener.onExecuted(this, index, 1, System.nanoTime() - start);
+        return result;
+    }
+
+    private void invokeCommandWith(int index, Object[] parameters) {
+        CommandsMapListener listener = this.listener;
+        if (listener == null) {
+            invokeWith(index, parameters);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            invokeWith(index, parameters);
+        } catch (Throwable e) {
+            listener.onFailed(this, index, e);
+            throw e;
+        }
+        listener.onExecuted(this, index, 1, System.nanoTime() - start);
+    }
+
+    private void invokeAllCommands(int index, Object[] parameters, int from, int to) {
+        CommandsMapListener listener = this.listener;
+        if (listener == null || to == from) {
+            invokeAll(index, parameters, from, to);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            invokeAll(index, parameters, from, to);
+        } catch (Throwable e) {
+            listener.onFailed(this, index, e);
+            throw e;
+        }
+        listener.onExecuted(this, index, to - from, System.nanoTime() - start);
+    }
+
+    int indexOf(Object key) {
+        if (key instanceof Integer) {
+            return indexOfInt((Integer) key);
+        } else if (key instanceof String) {
+            return indexOfString((String) key);
+        } else if (key instanceof Long) {
+            return indexOfLong((Long) key);
+        } else if (key instanceof Double) {
+            return indexOfDouble((Double) key);
+        } else if (key instanceof Float) {
+            return indexOfFloat((Float) key);
+        } else if (key instanceof Enum) {
+            return indexOfEnum((Enum<?>) key);
+        } else if (key instanceof Class) {
+            return indexOfClass((Class<?>) key);
+        } else {
+            return NO_COMMAND;
+        }
     }
 
     /**
@@ -67,19 +903,15 @@ public class CommandsMap extends CommandsMapInitializer {
      * @param key       the value that was set in the {@link com.annotations.Command} annotation
      * @param parameter the parameter to pass to the target method
      * @throws IllegalArgumentException if the key passed is not mapped to any methods (
-     *                                  not mentioned in the {@link com.annotations.Command} annotation
+     *                                  not mentioned in the {@link com.annotations.Command} annotation,
+     *                                  and the {@link MissHandler} is {@link CommandsPolicy#throwing()}
      */
     public final void execute(Object key, Object parameter) {
-        if (commands.containsKey(key)) {
-            commands.get(key).accept(parameter);
-        } else if (biCommands.containsKey(key)) {
-            try {
-                biCommands.get(key).accept(parameter, null);
-            } catch (Throwable e) {
-                e.printStackTrace();
-            }
+        int index = indexOf(key);
+        if (index != NO_COMMAND) {
+            dispatch(index, parameter, null);
         } else {
-            System.err.println("no command assigned to the passed key " + key);
+            executeAddedCommand(key, parameter);
         }
     }
 
@@ -90,24 +922,515 @@ public class CommandsMap extends CommandsMapInitializer {
      * @param parameterOne the first parameter to pass to the target method
      * @param parameterTwo the second parameter to pass to the target method
      * @throws IllegalArgumentException if the key passed is not mapped to any methods (
-     *                                  not mentioned in the {@link com.annotations.Command} annotation
+     *                                  not mentioned in the {@link com.annotations.Command} annotation,
+     *                                  and the {@link MissHandler} is {@link CommandsPolicy#throwing()}
      */
     public final void execute(Object key, Object parameterOne, Object parameterTwo) {
-        if (biCommands.containsKey(key)) {
-            biCommands.get(key).accept(parameterOne, parameterTwo);
-        } else if (commands.containsKey(key)) {
-            commands.get(key).accept(parameterOne);
+        int index = indexOf(key);
+        if (index != NO_COMMAND) {
+            dispatch(index, parameterOne, parameterTwo);
+        } else {
+            executeAddedBiCommand(key, parameterOne, parameterTwo);
+        }
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command#value()} and has no
+     * parameters, without boxing the key
+     *
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     */
+    public final void executeInt(int key) {
+        executeInt(key, null);
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command#value()} and has one
+     * parameter, without boxing the key
+     *
+     * @param key       the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameter the parameter to pass to the target method
+     */
+    public final void executeInt(int key, Object parameter) {
+        int index = indexOfInt(key);
+        if (index != NO_COMMAND) {
+            dispatch(index, parameter, null);
+        } else {
+            executeAddedCommand(key, parameter);
+        }
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command#value()} and has two
+     * parameters, without boxing the key
+     *
+     * @param key          the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameterOne the first parameter to pass to the target method
+     * @param parameterTwo the second parameter to pass to the target method
+     */
+    public final void executeInt(int key, Object parameterOne, Object parameterTwo) {
+        int index = indexOfInt(key);
+        if (index != NO_COMMAND) {
+            dispatch(index, parameterOne, parameterTwo);
+        } else {
+            executeAddedBiCommand(key, parameterOne, parameterTwo);
+        }
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command#keyLong()} and has
+     * no parameters, without boxing the key
+     *
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     */
+    public final void executeLong(long key) {
+        executeLong(key, null);
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command#keyLong()} and has
+     * one parameter, without boxing the key
+     *
+     * @param key       the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameter the parameter to pass to the target method
+     */
+    public final void executeLong(long key, Object parameter) {
+        int index = indexOfLong(key);
+        if (index != NO_COMMAND) {
+            dispatch(index, parameter, null);
+        } else {
+            executeAddedCommand(key, parameter);
+        }
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command#keyLong()} and has
+     * two parameters, without boxing the key
+     *
+     * @param key          the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameterOne the first parameter to pass to the target method
+     * @param parameterTwo the second parameter to pass to the target method
+     */
+    public final void executeLong(long key, Object parameterOne, Object parameterTwo) {
+        int index = indexOfLong(key);
+        if (index != NO_COMMAND) {
+            dispatch(index, parameterOne, parameterTwo);
+        } else {
+            executeAddedBiCommand(key, parameterOne, parameterTwo);
+        }
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} with any number
+     * of parameters, for the methods that take more than two parameters, or for the keys that
+     * are known only at runtime, else the generated {@code $$Commands} class of the host class
+     * executes every method with it's typed parameters, without boxing them in an array
+     *
+     * @param key        the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameters the parameters to pass to the target method, where the missing
+     *                   parameters are passed as {@code null}
+     */
+    public final void executeWith(Object key, Object... parameters) {
+        int index = indexOf(key);
+        if (index == NO_COMMAND) {
+            executeAddedBiCommand(key, parameterAt(parameters, 0), parameterAt(parameters, 1));
+        } else {
+            executeCommandWith(index, parameters);
+        }
+    }
+
+    /**
+     * execute a generated command like {@link #executeWith(Object, Object...)}, after it's key
+     * was looked up, this is used by the generated typed methods, which know the index of their
+     * command, even if it's key is a prefix or a range of keys
+     *
+     * @param index      the index of the command
+     * @param parameters the parameters to pass to the target method
+     */
+    protected final void executeCommandWith(int index, Object... parameters) {
+        if (isAsync(index)) {
+            dispatchAsyncWith(index, parameters);
+        } else {
+            invokeCommandWith(index, parameters);
+        }
+    }
+
+    private void dispatchAsyncWith(final int index, final Object[] parameters) {
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    invokeCommandWith(index, parameters);
+                } catch (Throwable e) {
+                    asyncCommandFailed(index, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} and has no
+     * parameters, and return the value that it returns, the method is invoked on the calling
+     * thread even if it is {@link com.annotations.Command#async()}
+     *
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     * @param <T> the type of the returned value
+     * @return the value returned by the method, or {@code null} if it is {@code void} or the key
+     * is not mapped to a generated command
+     */
+    public final <T> T query(Object key) {
+        return query(key, null, null);
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} and has one
+     * parameter, and return the value that it returns, the method is invoked on the calling
+     * thread even if it is {@link com.annotations.Command#async()}
+     *
+     * @param key       the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameter the parameter to pass to the target method
+     * @param <T>       the type of the returned value
+     * @return the value returned by the method, or {@code null} if it is {@code void} or the key
+     * is not mapped to a generated command
+     */
+    public final <T> T query(Object key, Object parameter) {
+        return query(key, parameter, null);
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} and has two
+     * parameters, and return the value that it returns, the method is invoked on the calling
+     * thread even if it is {@link com.annotations.Command#async()}
+     *
+     * @param key          the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameterOne the first parameter to pass to the target method
+     * @param parameterTwo the second parameter to pass to the target method
+     * @param <T>          the type of the returned value
+     * @return the value returned by the method, or {@code null} if it is {@code void} or the key
+     * is not mapped to a generated command
+     */
+    @SuppressWarnings("unchecked")
+    public final <T> T query(Object key, Object parameterOne, Object parameterTwo) {
+        int index = indexOf(key);
+        if (index != NO_COMMAND) {
+            return (T) callCommand(index, parameterOne, parameterTwo);
+        }
+        executeAddedBiCommand(key, parameterOne, parameterTwo);
+        return null;
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} with any number
+     * of parameters, and return the value that it returns, the method is invoked on the calling
+     * thread even if it is {@link com.annotations.Command#async()}
+     *
+     * @param key        the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameters the parameters to pass to the target method, where the missing
+     *                   parameters are passed as {@code null}
+     * @param <T>        the type of the returned value
+     * @return the value returned by the method, or {@code null} if it is {@code void} or the key
+     * is not mapped to a generated command
+     */
+    public final <T> T queryWith(Object key, Object... parameters) {
+        int index = indexOf(key);
+        if (index != NO_COMMAND) {
+            return queryCommandWith(index, parameters);
+        }
+        executeAddedBiCommand(key, parameterAt(parameters, 0), parameterAt(parameters, 1));
+        return null;
+    }
+
+    /**
+     * execute a generated command like {@link #queryWith(Object, Object...)}, after it's key was
+     * looked up, this is used by the generated typed methods
+     *
+     * @param index      the index of the command
+     * @param parameters the parameters to pass to the target method
+     * @param <T>        the type of the returned value
+     * @return the value returned by the method, or {@code null} if it is {@code void}
+     */
+    @SuppressWarnings("unchecked")
+    protected final <T> T queryCommandWith(int index, Object... parameters) {
+        return (T) callCommandWith(index, parameters);
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} with any number
+     * of parameters on the {@link Executor} of this {@link CommandsMap}, and return the value that
+     * it returns through a {@link Future}
+     *
+     * @param key        the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameters the parameters to pass to the target method, where the missing
+     *                   parameters are passed as {@code null}
+     * @param <T>        the type of the returned value
+     * @return a {@link Future} that holds the value returned by the method when it returns, or
+     * the error thrown by it
+     */
+    public final <T> Future<T> queryAsync(final Object key, final Object... parameters) {
+        FutureTask<T> future = new FutureTask<>(new Callable<T>() {
+            @Override
+            public T call() {
+                return queryWith(key, parameters);
+            }
+        });
+        executor().execute(future);
+        return future;
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} once for every
+     * parameter, where the method is looked up once for all the parameters
+     *
+     * @param key        the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameters the parameters to pass to the target method, one for every invocation
+     */
+    public final void executeAll(Object key, Object[] parameters) {
+        int index = indexOf(key);
+        if (index != NO_COMMAND) {
+            dispatchAll(index, isAsync(index), parameters, 0, parameters.length);
         } else {
-            System.err.println("no command assigned to the passed key " + key);
+            for (Object parameter : parameters) {
+                executeAddedCommand(key, parameter);
+            }
+        }
+    }
+
+    /**
+     * execute a batch of events, where every key is executed with the parameter at the same
+     * index, the events are grouped by their methods, then every method is invoked in a loop for
+     * all of it's events, so the events of the same method are executed in their order, but the
+     * events of different methods are not
+     * <p>
+     * every run of equal keys is looked up once, so this pays off when the batch holds bursts of
+     * the same keys, if most of the events have a different key than the previous event, the
+     * events are executed one by one in their order
+     *
+     * @param keys       the keys of the events
+     * @param parameters the parameters of the events, with the same length as the keys
+     * @throws IllegalArgumentException if the keys and parameters lengths are not the same
+     */
+    public final void executeAll(Object[] keys, Object[] parameters) throws IllegalArgumentException {
+        if (keys.length != parameters.length) {
+            throw new IllegalArgumentException("passed " + keys.length + " keys with "
+                    + parameters.length + " parameters");
         }
+
+        // the batches are usually bursts of the same key, so they are split into runs of equal
+        // keys, and every run is resolved and dispatched as one
+        int[] runEnds = new int[keys.length];
+        int runsCount = 0;
+        for (int from = 0; from < keys.length; runsCount++) {
+            int to = from + 1;
+            while (to < keys.length && isSameKey(keys[from], keys[to])) {
+                to++;
+            }
+            runEnds[runsCount] = to;
+            from = to;
+        }
+
+        // when most of the runs are single events, resolving and grouping them costs more than
+        // executing them one by one
+        if (runsCount > keys.length / MIN_AVERAGE_RUN_LENGTH) {
+            for (int position = 0; position < keys.length; position++) {
+                execute(keys[position], parameters[position]);
+            }
+            return;
+        }
+
+        // every distinct key is resolved once, it's runs are chained from it's first run to it's
+        // last run, and the keys are found in an open addressing table of their numbers + 1, so
+        // zero is an empty slot
+        Object[] distinctKeys = new Object[runsCount];
+        int[] keyIndexes = new int[runsCount];
+        int[] firstRuns = new int[runsCount];
+        int[] lastRuns = new int[runsCount];
+        int[] nextRuns = new int[runsCount];
+        int[] table = new int[Integer.highestOneBit(Math.max(1, runsCount)) << 2];
+        int mask = table.length - 1;
+        int keysCount = 0;
+
+        for (int run = 0; run < runsCount; run++) {
+            int from = runStart(runEnds, run);
+            Object key = keys[from];
+            int slot = hash(key) & mask;
+            int keyNumber;
+            while ((keyNumber = table[slot] - 1) != NO_COMMAND
+                    && !isSameKey(distinctKeys[keyNumber], key)) {
+                slot = (slot + 1) & mask;
+            }
+            if (keyNumber == NO_COMMAND) {
+                keyNumber = keysCount++;
+                table[slot] = keysCount;
+                distinctKeys[keyNumber] = key;
+                keyIndexes[keyNumber] = indexOf(key);
+                firstRuns[keyNumber] = run;
+            } else {
+                nextRuns[lastRuns[keyNumber]] = run;
+            }
+            lastRuns[keyNumber] = run;
+            nextRuns[run] = NO_COMMAND;
+
+            if (keyIndexes[keyNumber] == NO_COMMAND) {
+                for (int position = from; position < runEnds[run]; position++) {
+                    executeAddedCommand(key, parameters[position]);
+                }
+            }
+        }
+
+        // the parameters of a command with many runs are gathered to invoke it once for all of them
+        Object[] gatheredParameters = null;
+        for (int keyNumber = 0; keyNumber < keysCount; keyNumber++) {
+            int index = keyIndexes[keyNumber];
+            if (index == NO_COMMAND) {
+                continue;
+            }
+
+            boolean async = isAsync(index);
+            if (async || firstRuns[keyNumber] == lastRuns[keyNumber]) {
+                for (int run = firstRuns[keyNumber]; run != NO_COMMAND; run = nextRuns[run]) {
+                    dispatchAll(index, async, parameters, runStart(runEnds, run), runEnds[run]);
+                }
+                continue;
+            }
+
+            if (gatheredParameters == null) {
+                gatheredParameters = new Object[keys.length];
+            }
+            int gatheredCount = 0;
+            for (int run = firstRuns[keyNumber]; run != NO_COMMAND; run = nextRuns[run]) {
+                for (int position = runStart(runEnds, run); position < runEnds[run]; position++) {
+                    gatheredParameters[gatheredCount++] = parameters[position];
+                }
+            }
+            invokeAllCommands(index, gatheredParameters, 0, gatheredCount);
+        }
+    }
+
+    private static int hash(Object key) {
+        int hashCode = key == null ? 0 : key.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    private static int runStart(int[] runEnds, int run) {
+        return run == 0 ? 0 : runEnds[run - 1];
+    }
+
+    static boolean isSameKey(Object key, Object otherKey) {
+        // the hash codes of the keys are cheaper to compare, and the String keys cache them
+        return key == otherKey || (key != null && otherKey != null
+                && key.hashCode() == otherKey.hashCode() && key.equals(otherKey));
+    }
+
+    private void dispatchAll(int index, boolean async, Object[] parameters, int from, int to) {
+        if (async) {
+            for (int i = from; i < to; i++) {
+                executor().execute(new AsyncCommand(this, index, null, parameters[i], null, false, true));
+            }
+        } else {
+            invokeAllCommands(index, parameters, from, to);
+        }
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} and has no
+     * parameters on the {@link Executor} of this {@link CommandsMap}
+     *
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     * @return a {@link Future} that is done when the method returns
+     */
+    public final Future<?> executeAsync(Object key) {
+        return executeAsync(key, null);
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} and has one
+     * parameter on the {@link Executor} of this {@link CommandsMap}
+     *
+     * @param key       the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameter the parameter to pass to the target method
+     * @return a {@link Future} that is done when the method returns
+     */
+    public final Future<?> executeAsync(Object key, Object parameter) {
+        return submit(new AsyncCommand(this, indexOf(key), key, parameter, null, false, false));
+    }
+
+    /**
+     * execute a method that was annotated with {@link com.annotations.Command} and has two
+     * parameters on the {@link Executor} of this {@link CommandsMap}
+     *
+     * @param key          the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameterOne the first parameter to pass to the target method
+     * @param parameterTwo the second parameter to pass to the target method
+     * @return a {@link Future} that is done when the method returns
+     */
+    public final Future<?> executeAsync(Object key, Object parameterOne, Object parameterTwo) {
+        return submit(new AsyncCommand(this, indexOf(key), key, parameterOne, parameterTwo, true, false));
+    }
+
+    private Future<?> submit(AsyncCommand asyncCommand) {
+        FutureTask<Void> future = new FutureTask<>(asyncCommand, null);
+        executor().execute(future);
+        return future;
+    }
+
+    /**
+     * execute a command that was added through {@link #addCommand(Object, Command)} or
+     * {@link #addBiCommand(Object, BiCommand)}, this is the only path where a primitive key
+     * is boxed, after it was not found in the generated commands
+     */
+    void executeAddedCommand(Object key, Object parameter) {
+        CommandEntry entry = addedCommands.get(key);
+        if (entry == null) {
+            missed(key);
+        } else if (entry.biCommand) {
+            try {
+                entry.command.accept(parameter, null);
+            } catch (Throwable e) {
+                errorHandler().onError(this, key, e);
+            }
+        } else {
+            entry.command.accept(parameter, null);
+        }
+    }
+
+    void executeAddedBiCommand(Object key, Object parameterOne, Object parameterTwo) {
+        CommandEntry entry = addedCommands.get(key);
+        if (entry != null) {
+            entry.command.accept(parameterOne, parameterTwo);
+        } else {
+            missed(key);
+        }
+    }
+
+    private void missed(Object key) {
+        CommandsMapListener listener = this.listener;
+        if (listener != null) {
+            listener.onMissed(this, key);
+        }
+        missHandler().onMissed(this, key);
+    }
+
+    /**
+     * pass the error of an async command that no caller waits for to the {@link ErrorHandler}
+     */
+    void asyncCommandFailed(int index, Throwable error) {
+        commandFailed(keyOf(index), error);
+    }
+
+    /**
+     * pass the error of a command that no caller waits for to the {@link ErrorHandler}
+     */
+    void commandFailed(Object key, Throwable error) {
+        errorHandler().onError(this, key, error);
     }
 
     /**
      * clear the current {@link CommandsMap}, this method is important to clear all the references
      */
-    public final void clear() {
-        commands.clear();
-        biCommands.clear();
+    public final synchronized void clear() {
         commandsMapFactory = null;
+        weakCommandsMapFactory = null;
+        addedCommands = Collections.emptyMap();
+        clearCache();
     }
 }
@@ -0,0 +1,82 @@
+package com.mapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * builds a {@link CommandsMap} at runtime, for the commands that are not known at compile time,
+ * like the commands of plugins, it is created through {@link CommandsMap#builder()} :
+ * <pre>
+ * CommandsMap commandsMap = CommandsMap.builder()
+ *         .add("refresh", refreshCommand)
+ *         .addCommands(plugin)
+ *         .build();
+ * </pre>
+ * the {@link Command} and {@link BiCommand} are functional interfaces, so on Java 8 and above
+ * they can be method references, and the methods annotated with
+ * {@link com.annotations.Command} in classes that has no generated {@link CommandsMap} are found
+ * through reflections once for every class
+ * <p>
+ * the commands are executed through {@link CommandsMap#execute(Object, Object)} like the
+ * commands added through {@link CommandsMap#addCommand(Object, Command)}, and the generated
+ * {@link CommandsMap} of a class annotated with {@link com.annotations.CommandsMapFactory} is
+ * still faster, as it does not box or hash the keys
+ */
+public final class CommandsMapBuilder {
+
+    private final Map<Object, CommandEntry> commands = new HashMap<>();
+
+    CommandsMapBuilder() {
+    }
+
+    /**
+     * add a {@link Command} that takes one parameter, which replaces the command added before
+     * for the same key
+     *
+     * @param key     the key of the command
+     * @param command the {@link Command} to execute
+     * @return this builder
+     */
+    public CommandsMapBuilder add(Object key, Command command) {
+        commands.put(key, CommandEntry.of(command));
+        return this;
+    }
+
+    /**
+     * add a {@link BiCommand} that takes two parameters, which replaces the command added before
+     * for the same key
+     *
+     * @param key       the key of the command
+     * @param biCommand the {@link BiCommand} to execute
+     * @return this builder
+     */
+    public CommandsMapBuilder add(Object key, BiCommand biCommand) {
+        commands.put(key, CommandEntry.of(biCommand));
+        return this;
+    }
+
+    /**
+     * add the methods annotated with {@link com.annotations.Command} in the class of the passed
+     * instance and it's super classes, which replace the commands added before for the same keys
+     *
+     * @param host the instance that holds the annotated methods, which does not need to be
+     *             annotated with {@link com.annotations.CommandsMapFactory}
+     * @return this builder
+     * @throws IllegalArgumentException if an annotated method takes more than two parameters,
+     *                                  or two annotated methods of the same class has the same key
+     */
+    public CommandsMapBuilder addCommands(Object host) throws IllegalArgumentException {
+        ReflectiveCommands.of(host.getClass()).addTo(host, commands);
+        return this;
+    }
+
+    /**
+     * @return a new {@link CommandsMap} that holds the added commands, this builder can be used
+     * again after it
+     */
+    public CommandsMap build() {
+        CommandsMap commandsMap = new CommandsMap();
+        commandsMap.putAddedCommands(commands);
+        return commandsMap;
+    }
+}
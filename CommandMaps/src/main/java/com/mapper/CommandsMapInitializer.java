@@ -3,6 +3,14 @@ package com.mapper;
 import com.annotations.CommandsMapFactory;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * a class that retrieves the {@link CommandsMap} Object related to the passed class
@@ -13,39 +21,194 @@ class CommandsMapInitializer {
 
     public static final String GENERATED_NAME = "$$CommandsMap";
 
+    private static final ConcurrentHashMap<Class<?>, Constructor<?>> constructors =
+            new ConcurrentHashMap<>();
+
+    private static volatile CommandsMapsIndex[] indexes = new CommandsMapsIndex[0];
+
     /**
-     * create a {@link CommandsMap} from the passed instance
+     * the instances created by {@link #of(Object)} while tracking leaks, which are held weakly,
+     * so tracking them does not keep them from being garbage collected
+     */
+    private static final Set<CommandsMap> trackedCommandsMaps =
+            Collections.newSetFromMap(new WeakHashMap<CommandsMap, Boolean>());
+
+    private static volatile boolean leakTracking;
+
+    /**
+     * add an index of generated {@link CommandsMap} classes, so that {@link #of(Object)} creates
+     * them without reflections, this method should be invoked once for every index (like in
+     * {@code Application.onCreate()})
+     *
+     * @param index the generated {@link CommandsMapsIndex}
+     */
+    public static synchronized void addIndex(CommandsMapsIndex index) {
+        CommandsMapsIndex[] newIndexes = new CommandsMapsIndex[indexes.length + 1];
+        System.arraycopy(indexes, 0, newIndexes, 0, indexes.length);
+        newIndexes[indexes.length] = index;
+        indexes = newIndexes;
+    }
+
+    /**
+     * create a {@link CommandsMap} from the passed instance, the generated class is looked up
+     * in the indexes added through {@link #addIndex(CommandsMapsIndex)}, then through reflections,
+     * where it's constructor is cached for every class
+     * <p>
+     * if the class of the passed instance is not annotated with {@link CommandsMapFactory} (like
+     * an anonymous sub class), the {@link CommandsMap} of it's nearest annotated super class is
+     * created, which holds the methods of this super class and the classes above it
      *
      * @param commandsMapFactory an Object that is annotated with {@link CommandsMapFactory}
      * @return a {@link CommandsMap} that holds all the methods annotated with {@link com.annotations.Command}
-     * @throws IllegalArgumentException if the passed instance is not annotated with {@link CommandsMapFactory}
+     * @throws IllegalArgumentException if the passed instance and it's super classes are not
+     *                                  annotated with {@link CommandsMapFactory}
      */
     public static CommandsMap of(Object commandsMapFactory) throws IllegalArgumentException {
 
-        Class<?> commandsMapFactoryClass = commandsMapFactory.getClass();
+        CommandsMap commandsMap = newCommandsMap(commandsMapFactory.getClass());
+        commandsMap.setCommandsMapFactory(commandsMapFactory);
+        if (leakTracking) {
+            track(commandsMap);
+        }
+        return commandsMap;
+    }
 
-        if (commandsMapFactoryClass.getAnnotation(CommandsMapFactory.class) == null) {
+    /**
+     * create a {@link CommandsMap} from the passed instance like {@link #of(Object)}, that holds
+     * this instance through a {@link java.lang.ref.WeakReference}, so it does not need to be
+     * cleared, where the commands executed after the instance is garbage collected are passed to
+     * {@link MissHandler#onCleared(CommandsMap, int)}
+     *
+     * @param commandsMapFactory an Object that is annotated with {@link CommandsMapFactory}
+     * @return a {@link CommandsMap} that holds all the methods annotated with {@link com.annotations.Command}
+     * @throws IllegalArgumentException if the passed instance and it's super classes are not
+     *                                  annotated with {@link CommandsMapFactory}
+     * @see CommandsMap#setWeakCommandsMapFactory(Object)
+     */
+    public static CommandsMap ofWeak(Object commandsMapFactory) throws IllegalArgumentException {
+
+        CommandsMap commandsMap = newCommandsMap(commandsMapFactory.getClass());
+        commandsMap.setWeakCommandsMapFactory(commandsMapFactory);
+        return commandsMap;
+    }
+
+    private static CommandsMap newCommandsMap(Class<?> commandsMapFactoryClass)
+            throws IllegalArgumentException {
+        CommandsMap commandsMap = fromIndexes(commandsMapFactoryClass);
+        return commandsMap != null ? commandsMap : createCommandsMap(constructor(commandsMapFactoryClass));
+    }
+
+    /**
+     * @return a new {@link CommandsMapBuilder}, to build a {@link CommandsMap} from commands that
+     * are added at runtime, or from the annotated methods of a class that has no generated
+     * {@link CommandsMap}
+     */
+    public static CommandsMapBuilder builder() {
+        return new CommandsMapBuilder();
+    }
+
+    /**
+     * start or stop tracking the instances created by {@link #of(Object)}, to be reported by
+     * {@link #leakReport()}, this is meant for debug builds and tests, where tracking costs a
+     * synchronized insertion in a {@link WeakHashMap} for every created instance
+     *
+     * @param enabled {@code true} to track the instances created from now on, {@code false} to
+     *                stop tracking and forget the tracked instances
+     */
+    public static void setLeakTracking(boolean enabled) {
+        leakTracking = enabled;
+        if (!enabled) {
+            synchronized (trackedCommandsMaps) {
+                trackedCommandsMaps.clear();
+            }
+        }
+    }
+
+    private static void track(CommandsMap commandsMap) {
+        synchronized (trackedCommandsMaps) {
+            trackedCommandsMaps.add(commandsMap);
+        }
+    }
+
+    /**
+     * report the tracked instances that still hold their host objects, which are the instances
+     * that are not garbage collected yet, and that {@link CommandsMap#clear()} was not invoked
+     * on, where a count that keeps growing for a class that it's instances should be gone by
+     * now (like a destroyed Activity) is a leak
+     *
+     * @return the number of these instances for every class of their host objects, which is
+     * empty if {@link #setLeakTracking(boolean) leak tracking} was never enabled
+     */
+    public static Map<Class<?>, Integer> leakReport() {
+        List<CommandsMap> commandsMaps;
+        synchronized (trackedCommandsMaps) {
+            commandsMaps = new ArrayList<>(trackedCommandsMaps);
+        }
+        Map<Class<?>, Integer> report = new HashMap<>();
+        for (CommandsMap commandsMap : commandsMaps) {
+            Object commandsMapFactory = commandsMap.getHostObject();
+            if (commandsMapFactory != null && commandsMap.holdsHostObject()) {
+                Integer count = report.get(commandsMapFactory.getClass());
+                report.put(commandsMapFactory.getClass(), count == null ? 1 : count + 1);
+            }
+        }
+        return report;
+    }
+
+    private static CommandsMap fromIndexes(Class<?> commandsMapFactoryClass) {
+        for (CommandsMapsIndex index : indexes) {
+            CommandsMap commandsMap = index.newCommandsMap(commandsMapFactoryClass);
+            if (commandsMap != null) {
+                return commandsMap;
+            }
+        }
+        return null;
+    }
+
+    private static Constructor<?> constructor(Class<?> commandsMapFactoryClass)
+            throws IllegalArgumentException {
+
+        Constructor<?> constructor = constructors.get(commandsMapFactoryClass);
+        if (constructor != null) {
+            return constructor;
+        }
+
+        Class<?> annotatedClass = commandsMapFactoryClass;
+        while (annotatedClass != null && annotatedClass.getAnnotation(CommandsMapFactory.class) == null) {
+            annotatedClass = annotatedClass.getSuperclass();
+        }
+        if (annotatedClass == null) {
             throw new IllegalArgumentException("passed Object should be annotated with @"
                     + CommandsMapFactory.class.getSimpleName());
         }
 
-        String commandsMapName = commandsMapFactoryClass.getName() + GENERATED_NAME;
-        CommandsMap commandsMap = createCommandsMap(commandsMapName);
-        commandsMap.setCommandsMapFactory(commandsMapFactory);
-        return commandsMap;
+        String commandsMapName = annotatedClass.getName() + GENERATED_NAME;
+        constructor = findConstructor(commandsMapName);
+        Constructor<?> existing = constructors.putIfAbsent(commandsMapFactoryClass, constructor);
+        return existing != null ? existing : constructor;
     }
 
-    private static CommandsMap createCommandsMap(String commandsMapName)
+    private static Constructor<?> findConstructor(String commandsMapName)
             throws IllegalArgumentException {
         try {
             Class<?> clazz = Class.forName(commandsMapName);
             Constructor constructor = clazz.getDeclaredConstructor();
             constructor.setAccessible(true);
-            return (CommandsMap) constructor.newInstance();
+            return constructor;
         } catch (Exception e) {
             throw new IllegalArgumentException("failed to initialize " + commandsMapName
                     + ", try to re-build the project");
         }
     }
 
+    private static CommandsMap createCommandsMap(Constructor<?> constructor)
+            throws IllegalArgumentException {
+        try {
+            return (CommandsMap) constructor.newInstance();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("failed to initialize "
+                    + constructor.getDeclaringClass().getName() + ", try to re-build the project");
+        }
+    }
+
 }
@@ -0,0 +1,43 @@
+package com.mapper;
+
+/**
+ * a listener that is notified with every command executed by a {@link CommandsMap}, it is set
+ * through {@link CommandsMap#setListener(CommandsMapListener)}, and when no listener is set, the
+ * commands are executed without measuring them
+ * <p>
+ * the commands are identified by their index in the generated {@link CommandsMap}, which is
+ * mapped back to it's key through {@link CommandsMap#getCommandKey(int)}, so the keys are not
+ * boxed while executing the commands, the methods of this listener are invoked on the thread
+ * that executed the command, so they should not block
+ */
+public interface CommandsMapListener {
+
+    /**
+     * invoked after a generated command returns
+     *
+     * @param commandsMap the {@link CommandsMap} that executed the command
+     * @param command     the index of the command
+     * @param invocations the number of times the command was invoked, which is more than one
+     *                    when it is executed through the {@code executeAll()} methods, and
+     *                    never zero, as an empty batch is not reported
+     * @param nanos       the time taken by all the invocations, in nanoseconds
+     */
+    void onExecuted(CommandsMap commandsMap, int command, int invocations, long nanos);
+
+    /**
+     * invoked when a generated command throws, before the error is thrown to the caller
+     *
+     * @param commandsMap the {@link CommandsMap} that executed the command
+     * @param command     the index of the command
+     * @param error       the thrown error
+     */
+    void onFailed(CommandsMap commandsMap, int command, Throwable error);
+
+    /**
+     * invoked when a key is not mapped to a generated command nor to an added command
+     *
+     * @param commandsMap the {@link CommandsMap} that the key was passed to
+     * @param key         the key that is not mapped
+     */
+    void onMissed(CommandsMap commandsMap, Object key);
+}
@@ -0,0 +1,32 @@
+package com.mapper;
+
+/**
+ * an index of the generated {@link CommandsMap} classes, which is generated by the
+ * annotation processor when the {@code commandsMapsIndexPackage} option is set, as follows :
+ * <pre>
+ * javaCompileOptions {
+ *     annotationProcessorOptions {
+ *         arguments = [commandsMapsIndexPackage: 'com.example']
+ *     }
+ * }
+ * </pre>
+ * then the generated {@code com.example.CommandsMaps$$Index} should be added once through
+ * {@link CommandsMap#addIndex(CommandsMapsIndex)}, so that {@link CommandsMap#of(Object)} creates
+ * the indexed {@link CommandsMap} classes without reflections
+ */
+public interface CommandsMapsIndex {
+
+    /**
+     * the name of the generated index class
+     */
+    String GENERATED_NAME = "CommandsMaps$$Index";
+
+    /**
+     * create a new instance of the generated {@link CommandsMap} of the passed class
+     *
+     * @param commandsMapFactoryClass a class that is annotated with
+     *                                {@link com.annotations.CommandsMapFactory}
+     * @return a new {@link CommandsMap}, or {@code null} if the passed class is not in this index
+     */
+    CommandsMap newCommandsMap(Class<?> commandsMapFactoryClass);
+}
@@ -0,0 +1,129 @@
+package com.mapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * a {@link CommandsMapListener} that counts the invocations, errors and misses of a
+ * {@link CommandsMap}, and records the latencies of every command, it is created through
+ * {@link CommandsMap#enableMetrics()}, and read through {@link #snapshot()}
+ * <p>
+ * the invocations are counted in stripes, where every thread adds to the stripe of it's id, and
+ * every stripe starts a cache line after the end of the previous stripe, so the threads of
+ * different stripes do not contend on the same cache line, whichever commands they execute,
+ * while the latencies histogram of a command is shared by all the threads, which contend on it
+ * only when they record latencies of the same bucket, it is allocated on the first invocation of
+ * it's command, so the commands that are never executed cost nothing
+ */
+public final class CommandsMetrics implements CommandsMapListener {
+
+    /**
+     * the number of counters in a cache line, which is the distance between the miss counters of
+     * the stripes, and the least distance between the invocation counters of two stripes, so
+     * that each stripe is on different cache lines
+     */
+    private static final int PADDING = 8;
+    private static final int MAX_STRIPES = 64;
+
+    private final CommandsMap commandsMap;
+    private final int commandsCount;
+    private final int stripeLength;
+    private final int stripeMask;
+    private final AtomicLongArray calls;
+    private final AtomicLongArray nanos;
+    private final AtomicLongArray errors;
+    private final AtomicLongArray misses;
+    private final AtomicReferenceArray<LatencyHistogram> latencies;
+
+    CommandsMetrics(CommandsMap commandsMap) {
+        int stripes = Math.min(MAX_STRIPES,
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.commandsMap = commandsMap;
+        this.commandsCount = commandsMap.commandsCount();
+        // the unused counters at the end of every stripe fill a cache line at least
+        this.stripeLength = (commandsCount + 2 * PADDING - 1) / PADDING * PADDING;
+        this.stripeMask = stripes - 1;
+        this.calls = new AtomicLongArray(stripes * stripeLength);
+        this.nanos = new AtomicLongArray(stripes * stripeLength);
+        this.errors = new AtomicLongArray(commandsCount);
+        this.misses = new AtomicLongArray(stripes * PADDING);
+        this.latencies = new AtomicReferenceArray<>(commandsCount);
+    }
+
+    private int stripe() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    @Override
+    public void onExecuted(CommandsMap commandsMap, int command, int invocations, long nanos) {
+        if (invocations <= 0) {
+            return;
+        }
+        int counter = stripe() * stripeLength + command;
+        calls.addAndGet(counter, invocations);
+        this.nanos.addAndGet(counter, nanos);
+        latencyOf(command).record(nanos / invocations, invocations);
+    }
+
+    private LatencyHistogram latencyOf(int command) {
+        LatencyHistogram latency = latencies.get(command);
+        if (latency == null) {
+            latencies.compareAndSet(command, null, new LatencyHistogram());
+            latency = latencies.get(command);
+        }
+        return latency;
+    }
+
+    @Override
+    public void onFailed(CommandsMap commandsMap, int command, Throwable error) {
+        calls.incrementAndGet(stripe() * stripeLength + command);
+        errors.incrementAndGet(command);
+    }
+
+    @Override
+    public void onMissed(CommandsMap commandsMap, Object key) {
+        misses.incrementAndGet(stripe() * PADDING);
+    }
+
+    /**
+     * @return the number of keys that were not mapped to any command
+     */
+    public long getMisses() {
+        long total = 0;
+        for (int counter = 0; counter < misses.length(); counter += PADDING) {
+            total += misses.get(counter);
+        }
+        return total;
+    }
+
+    /**
+     * take a snapshot of the commands that were executed, the counters are read while the
+     * commands are being executed, so a snapshot may miss the invocations that are running while
+     * it is taken
+     *
+     * @return the {@link CommandStats} of every command that was executed at least once, in the
+     * order of the methods in the host class
+     */
+    public List<CommandStats> snapshot() {
+        List<CommandStats> snapshot = new ArrayList<>();
+        for (int command = 0; command < commandsCount; command++) {
+            long commandCalls = 0;
+            long commandNanos = 0;
+            for (int counter = command; counter < calls.length(); counter += stripeLength) {
+                commandCalls += calls.get(counter);
+                commandNanos += nanos.get(counter);
+            }
+            if (commandCalls == 0) {
+                continue;
+            }
+            LatencyHistogram latency = latencies.get(command);
+            snapshot.add(new CommandStats(commandsMap.keyOf(command), commandCalls,
+                    errors.get(command), commandNanos,
+                    latency == null ? new long[0] : latency.copyCounts()));
+        }
+        return Collections.unmodifiableList(snapshot);
+    }
+}
@@ -0,0 +1,143 @@
+package com.mapper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the policies of handling the misses and errors of a {@link CommandsMap}, where every policy is
+ * both a {@link MissHandler} and an {@link ErrorHandler} :
+ * <ul>
+ * <li>{@link #ignore()} does nothing</li>
+ * <li>{@link #count()} counts the events</li>
+ * <li>{@link #log(long)} counts the events, and prints one message at most for every interval to
+ * {@link System#err}, with the number of the events that were not printed</li>
+ * <li>{@link #throwing()} counts the events, and throws an {@link IllegalArgumentException} for a
+ * missed key, an {@link IllegalStateException} for a cleared {@link CommandsMap}, and the error
+ * itself for an error</li>
+ * </ul>
+ * only the printed messages are built, so the events that are ignored, counted, or not printed
+ * cost an atomic increment at most
+ */
+public final class CommandsPolicy implements MissHandler, ErrorHandler {
+
+    private enum Mode {
+        IGNORE, COUNT, LOG, THROW
+    }
+
+    private static final CommandsPolicy IGNORE = new CommandsPolicy(Mode.IGNORE, 0);
+
+    private final Mode mode;
+    private final long intervalMillis;
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong printedEvents = new AtomicLong();
+    private final AtomicLong nextPrintMillis = new AtomicLong();
+
+    private CommandsPolicy(Mode mode, long intervalMillis) {
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * @return a policy that does nothing
+     */
+    public static CommandsPolicy ignore() {
+        return IGNORE;
+    }
+
+    /**
+     * @return a new policy that counts the events, which are read through {@link #getCount()}
+     */
+    public static CommandsPolicy count() {
+        return new CommandsPolicy(Mode.COUNT, 0);
+    }
+
+    /**
+     * @param intervalMillis the minimum time between two printed messages, in milliseconds
+     * @return a new policy that counts the events, and prints one message at most for every
+     * interval
+     */
+    public static CommandsPolicy log(long intervalMillis) {
+        return new CommandsPolicy(Mode.LOG, intervalMillis);
+    }
+
+    /**
+     * @return a new policy that counts the events, and throws them to the caller
+     */
+    public static CommandsPolicy throwing() {
+        return new CommandsPolicy(Mode.THROW, 0);
+    }
+
+    /**
+     * @return the number of the events handled by this policy, which is always zero for
+     * {@link #ignore()}
+     */
+    public long getCount() {
+        return events.get();
+    }
+
+    @Override
+    public void onMissed(CommandsMap commandsMap, Object key) {
+        if (mode == Mode.IGNORE) {
+            return;
+        }
+        long event = events.incrementAndGet();
+        if (mode == Mode.THROW) {
+            throw new IllegalArgumentException("no command assigned to the passed key " + key);
+        } else if (mode == Mode.LOG && isPrinting()) {
+            System.err.println("no command assigned to the passed key " + key + suppressed(event));
+        }
+    }
+
+    @Override
+    public void onCleared(CommandsMap commandsMap, int command) {
+        if (mode == Mode.IGNORE) {
+            return;
+        }
+        long event = events.incrementAndGet();
+        if (mode == Mode.THROW) {
+            throw new IllegalStateException(clearedMessage(commandsMap, command));
+        } else if (mode == Mode.LOG && isPrinting()) {
+            System.err.println(clearedMessage(commandsMap, command) + suppressed(event));
+        }
+    }
+
+    private static String clearedMessage(CommandsMap commandsMap, int command) {
+        return commandsMap.getClass().getSimpleName() + " cleared, the command of the key "
+                + commandsMap.getCommandKey(command) + " is not executed";
+    }
+
+    @Override
+    public void onError(CommandsMap commandsMap, Object key, Throwable error) {
+        if (mode == Mode.IGNORE) {
+            return;
+        }
+        long event = events.incrementAndGet();
+        if (mode == Mode.THROW) {
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else {
+                throw new RuntimeException(error);
+            }
+        } else if (mode == Mode.LOG && isPrinting()) {
+            System.err.println("the command of the key " + key + " failed" + suppressed(event));
+            error.printStackTrace();
+        }
+    }
+
+    /**
+     * @return {@code true} if the interval since the last printed message has passed, where only
+     * one of the threads that reach the end of the interval together prints it's message
+     */
+    private boolean isPrinting() {
+        long nextMillis = nextPrintMillis.get();
+        long nowMillis = System.currentTimeMillis();
+        return nowMillis >= nextMillis
+                && nextPrintMillis.compareAndSet(nextMillis, nowMillis + intervalMillis);
+    }
+
+    private String suppressed(long event) {
+        long suppressedEvents = event - printedEvents.getAndSet(event) - 1;
+        return suppressedEvents <= 0 ? "" : " (" + suppressedEvents + " more since the last message)";
+    }
+}
@@ -0,0 +1,398 @@
+package com.mapper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * a bounded queue in front of a {@link CommandsMap}, where many threads enqueue events, and one
+ * drain thread executes them in their order, so the threads that produce events faster than the
+ * commands handle them are not held by the commands, it is created through
+ * {@link #of(CommandsMap, int, Overflow)} :
+ * <pre>
+ * CommandsQueue queue = CommandsQueue.of(commandsMap, 1024, CommandsQueue.Overflow.DROP_OLDEST);
+ * queue.execute(key, event);
+ * </pre>
+ * the events are held in a ring of slots that are allocated once, where every slot has a
+ * sequence number that tells if it is free or holds an event, so enqueuing an event costs one
+ * compare and set, and allocates nothing, and the drain thread takes all the events that are
+ * ready, up to a batch, through one compare and set, frees their slots, then executes them,
+ * where a run of equal keys is looked up once
+ * <p>
+ * when the queue is full, the {@link Overflow} policy of the queue decides what happens to the
+ * new event, and the dropped or rejected events are counted in {@link #getOverflowCount()}, the
+ * errors thrown by the commands are passed to the {@link ErrorHandler} of the
+ * {@link CommandsMap}, as no caller waits for them
+ */
+public final class CommandsQueue {
+
+    /**
+     * what happens when an event is enqueued to a full queue
+     */
+    public enum Overflow {
+        /**
+         * wait until the drain thread frees a slot, except for the events enqueued by the
+         * commands on the drain thread itself, which are rejected, as the wait would never end
+         */
+        BLOCK,
+        /**
+         * drop the oldest event in the queue, that is not taken by the drain thread yet, to
+         * make room for the new event
+         */
+        DROP_OLDEST,
+        /**
+         * reject the new event, so {@code execute()} returns {@code false}
+         */
+        REJECT
+    }
+
+    /**
+     * the maximum number of events the drain thread takes together
+     */
+    private static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * the number of times the drain thread checks for a new event before it parks
+     */
+    private static final int DRAIN_SPINS = 64;
+
+    /**
+     * the time a producer that waits for a free slot parks before checking again
+     */
+    private static final long BLOCKED_PARK_NANOS = 20000;
+
+    /**
+     * the head and the tail are held in the same array, at a distance that puts each one on a
+     * different cache line, so the drain thread and the producers do not contend on them
+     */
+    private static final int PADDING = 16;
+    private static final int HEAD = PADDING;
+    private static final int TAIL = PADDING * 2;
+
+    private final CommandsMap commandsMap;
+    private final Overflow overflow;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray positions = new AtomicLongArray(PADDING * 3);
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final Object[] keys;
+    private final Object[] parametersOne;
+    private final Object[] parametersTwo;
+    private final boolean[] twoParameters;
+    private final Thread drainThread;
+    private volatile boolean drainerParked;
+    private volatile boolean closed;
+
+    // the events of a batch, which are read by the drain thread only
+    private final Object[] batchKeys;
+    private final Object[] batchParametersOne;
+    private final Object[] batchParametersTwo;
+    private final boolean[] batchTwoParameters;
+
+    private CommandsQueue(CommandsMap commandsMap, int capacity, Overflow overflow) {
+        this.commandsMap = commandsMap;
+        this.overflow = overflow;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            sequences.set(slot, slot);
+        }
+        this.keys = new Object[capacity];
+        this.parametersOne = new Object[capacity];
+        this.parametersTwo = new Object[capacity];
+        this.twoParameters = new boolean[capacity];
+        int batchSize = Math.min(capacity, MAX_BATCH_SIZE);
+        this.batchKeys = new Object[batchSize];
+        this.batchParametersOne = new Object[batchSize];
+        this.batchParametersTwo = new Object[batchSize];
+        this.batchTwoParameters = new boolean[batchSize];
+        this.drainThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, CommandsQueue.class.getSimpleName());
+        this.drainThread.setDaemon(true);
+    }
+
+    /**
+     * create a queue in front of a {@link CommandsMap}, and start it's drain thread, which is a
+     * daemon thread that runs until {@link #close()} is invoked
+     *
+     * @param commandsMap the {@link CommandsMap} that executes the events
+     * @param capacity    the maximum number of events in the queue, which is rounded up to a
+     *                    power of two, of two slots at least, as the sequence of a slot that
+     *                    holds an event equals the tail when the queue has one slot
+     * @param overflow    the {@link Overflow} policy of the events enqueued to a full queue
+     * @return the started {@link CommandsQueue}
+     * @throws IllegalArgumentException if the capacity is not positive, or more than
+     *                                  {@code 2^30}
+     */
+    public static CommandsQueue of(CommandsMap commandsMap, int capacity, Overflow overflow)
+            throws IllegalArgumentException {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("the capacity " + capacity
+                    + " is not between 1 and 2^30");
+        }
+        CommandsQueue queue = new CommandsQueue(commandsMap,
+                Integer.highestOneBit(Math.max(2, capacity) * 2 - 1), overflow);
+        queue.drainThread.start();
+        return queue;
+    }
+
+    /**
+     * enqueue an event for a method that was annotated with {@link com.annotations.Command} and
+     * has no parameters
+     *
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     * @return {@code true} if the event was enqueued, or {@code false} if it was rejected
+     */
+    public boolean execute(Object key) {
+        return enqueue(key, null, null, false);
+    }
+
+    /**
+     * enqueue an event for a method that was annotated with {@link com.annotations.Command} and
+     * has one parameter
+     *
+     * @param key       the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameter the parameter to pass to the target method
+     * @return {@code true} if the event was enqueued, or {@code false} if it was rejected
+     */
+    public boolean execute(Object key, Object parameter) {
+        return enqueue(key, parameter, null, false);
+    }
+
+    /**
+     * enqueue an event for a method that was annotated with {@link com.annotations.Command} and
+     * has two parameters
+     *
+     * @param key          the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameterOne the first parameter to pass to the target method
+     * @param parameterTwo the second parameter to pass to the target method
+     * @return {@code true} if the event was enqueued, or {@code false} if it was rejected
+     */
+    public boolean execute(Object key, Object parameterOne, Object parameterTwo) {
+        return enqueue(key, parameterOne, parameterTwo, true);
+    }
+
+    /**
+     * claim the slot at the tail, where the sequence of a free slot equals the tail, and the
+     * sequence of a slot that still holds the event of the previous round is behind it
+     */
+    private boolean enqueue(Object key, Object parameterOne, Object parameterTwo, boolean twoParameters) {
+        if (closed) {
+            overflowCount.incrementAndGet();
+            return false;
+        }
+        while (true) {
+            long tail = positions.get(TAIL);
+            int slot = (int) tail & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == tail) {
+                if (positions.compareAndSet(TAIL, tail, tail + 1)) {
+                    keys[slot] = key;
+                    parametersOne[slot] = parameterOne;
+                    parametersTwo[slot] = parameterTwo;
+                    this.twoParameters[slot] = twoParameters;
+                    // a volatile write, so the drain thread either sees the event, or it's
+                    // parked flag is seen here
+                    sequences.set(slot, tail + 1);
+                    if (drainerParked) {
+                        LockSupport.unpark(drainThread);
+                    }
+                    return true;
+                }
+            } else if (sequence < tail && !overflowed()) {
+                overflowCount.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * handle a full queue through the {@link Overflow} policy
+     *
+     * @return {@code true} to try enqueuing again, or {@code false} to reject the event
+     */
+    private boolean overflowed() {
+        if (overflow == Overflow.DROP_OLDEST) {
+            dropOldest();
+            return true;
+        } else if (overflow == Overflow.BLOCK && Thread.currentThread() != drainThread && !closed) {
+            LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * take the event at the head and free it's slot without executing it, if the drain thread
+     * did not take it first
+     */
+    private void dropOldest() {
+        long head = positions.get(HEAD);
+        int slot = (int) head & mask;
+        if (sequences.get(slot) == head + 1 && positions.compareAndSet(HEAD, head, head + 1)) {
+            free(slot, head);
+            overflowCount.incrementAndGet();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    private void free(int slot, long head) {
+        keys[slot] = null;
+        parametersOne[slot] = null;
+        parametersTwo[slot] = null;
+        sequences.set(slot, head + capacity);
+    }
+
+    private void drain() {
+        while (true) {
+            int batchSize = takeBatch();
+            if (batchSize > 0) {
+                executeBatch(batchSize);
+            } else if (closed && positions.get(HEAD) == positions.get(TAIL)) {
+                return;
+            } else if (!isReady(positions.get(HEAD))) {
+                awaitEvent();
+            }
+        }
+    }
+
+    private boolean isReady(long head) {
+        return sequences.get((int) head & mask) == head + 1;
+    }
+
+    private void awaitEvent() {
+        for (int spin = 0; spin < DRAIN_SPINS; spin++) {
+            if (isReady(positions.get(HEAD)) || closed) {
+                return;
+            }
+            Thread.yield();
+        }
+        drainerParked = true;
+        if (!isReady(positions.get(HEAD)) && !closed) {
+            LockSupport.park(this);
+        }
+        drainerParked = false;
+    }
+
+    /**
+     * take the events that are ready at the head, up to the size of a batch, through one
+     * compare and set, then copy them and free their slots before executing them, so the
+     * producers can enqueue while the batch is executed
+     *
+     * @return the number of the taken events
+     */
+    private int takeBatch() {
+        long head = positions.get(HEAD);
+        int batchSize = 0;
+        while (batchSize < batchKeys.length && isReady(head + batchSize)) {
+            batchSize++;
+        }
+        if (batchSize == 0 || !positions.compareAndSet(HEAD, head, head + batchSize)) {
+            return 0;
+        }
+        for (int i = 0; i < batchSize; i++) {
+            int slot = (int) (head + i) & mask;
+            batchKeys[i] = keys[slot];
+            batchParametersOne[i] = parametersOne[slot];
+            batchParametersTwo[i] = parametersTwo[slot];
+            batchTwoParameters[i] = twoParameters[slot];
+            free(slot, head + i);
+        }
+        return batchSize;
+    }
+
+    private void executeBatch(int batchSize) {
+        Object lastKey = null;
+        int index = CommandsMap.NO_COMMAND;
+        for (int i = 0; i < batchSize; i++) {
+            Object key = batchKeys[i];
+            if (i == 0 || !CommandsMap.isSameKey(key, lastKey)) {
+                index = commandsMap.indexOf(key);
+                lastKey = key;
+            }
+            try {
+                if (index != CommandsMap.NO_COMMAND) {
+                    commandsMap.dispatch(index, batchParametersOne[i], batchParametersTwo[i]);
+                } else if (batchTwoParameters[i]) {
+                    commandsMap.executeAddedBiCommand(key, batchParametersOne[i], batchParametersTwo[i]);
+                } else {
+                    commandsMap.executeAddedCommand(key, batchParametersOne[i]);
+                }
+            } catch (Throwable e) {
+                failed(key, e);
+            }
+            batchKeys[i] = null;
+            batchParametersOne[i] = null;
+            batchParametersTwo[i] = null;
+        }
+    }
+
+    /**
+     * pass the error of a command to the {@link ErrorHandler}, and the error thrown by the
+     * {@link ErrorHandler} itself to the uncaught exception handler of the drain thread, which
+     * keeps draining
+     */
+    private void failed(Object key, Throwable error) {
+        try {
+            commandsMap.commandFailed(key, error);
+        } catch (Throwable handlerError) {
+            drainThread.getUncaughtExceptionHandler().uncaughtException(drainThread, handlerError);
+        }
+    }
+
+    /**
+     * @return the number of the events in the queue, that are not taken by the drain thread yet
+     */
+    public int size() {
+        long head = positions.get(HEAD);
+        long tail = positions.get(TAIL);
+        return (int) Math.max(0, Math.min(capacity, tail - head));
+    }
+
+    /**
+     * @return the capacity of the queue, after it was rounded up to a power of two
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of the events that were dropped or rejected, because the queue was
+     * full or closed
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * stop accepting events, where the drain thread executes the events that are already in the
+     * queue then ends, the events enqueued while this method is invoked may be not executed, and
+     * closing the queue again does nothing
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(drainThread);
+    }
+
+    /**
+     * wait for the drain thread to end after {@link #close()} is invoked
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return {@code true} if the drain thread ended, or {@code false} if the timeout passed
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        drainThread.join(Math.max(1, unit.toMillis(timeout)));
+        return !drainThread.isAlive();
+    }
+}
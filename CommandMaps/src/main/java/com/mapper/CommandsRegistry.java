@@ -0,0 +1,246 @@
+package com.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * a registry of {@link CommandsMap} instances, that broadcasts an event to the instances that
+ * has a generated command for it's key, where the registered instances are indexed by the keys of
+ * their generated commands, so a broadcast looks up it's key once, and invokes the commands of
+ * this key directly, without looking up the key in every {@link CommandsMap}
+ * <p>
+ * the instances of every key are held in an array that is copied on every
+ * {@link #register(CommandsMap)} and {@link #unregister(CommandsMap)}, which are synchronized,
+ * so a broadcast does not lock, and iterates over the instances that were registered when it
+ * started, even if they are unregistered meanwhile
+ * <p>
+ * the keys are read from the generated class of the {@link CommandsMap}, so the commands added
+ * through {@link CommandsMap#addCommand(Object, Command)} are not broadcast, and the misses are
+ * not passed to the {@link MissHandler}, as not handling a broadcast key is not a miss
+ * <p>
+ * the prefixes and the ranges of keys can not be indexed by their keys, so the instances that
+ * has them look up every broadcast key, and execute it if it matches one of these patterns,
+ * after the instances that has it's exact key
+ */
+public final class CommandsRegistry {
+
+    private static final ConcurrentHashMap<Class<?>, Object[]> keysOfClasses =
+            new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Object, Subscribers> subscribers = new ConcurrentHashMap<>();
+    private volatile CommandsMap[] patternsSubscribers = new CommandsMap[0];
+    private final Set<CommandsMap> registered =
+            Collections.newSetFromMap(new IdentityHashMap<CommandsMap, Boolean>());
+
+    /**
+     * the instances of {@link CommandsMap} that handle a key, and the index of the command of
+     * this key in every one of them
+     */
+    private static final class Subscribers {
+
+        final CommandsMap[] commandsMaps;
+        final int[] commands;
+
+        Subscribers(CommandsMap[] commandsMaps, int[] commands) {
+            this.commandsMaps = commandsMaps;
+            this.commands = commands;
+        }
+    }
+
+    /**
+     * register a {@link CommandsMap} to receive the broadcasts of the keys of it's generated
+     * commands, registering it again does nothing
+     *
+     * @param commandsMap the {@link CommandsMap} to register
+     */
+    public synchronized void register(CommandsMap commandsMap) {
+        if (!registered.add(commandsMap)) {
+            return;
+        }
+        Object[] keys = keysOf(commandsMap);
+        for (int command = 0; command < keys.length; command++) {
+            if (keys[command] == null) {
+                continue;
+            }
+            Subscribers keySubscribers = subscribers.get(keys[command]);
+            if (keySubscribers == null) {
+                subscribers.put(keys[command], new Subscribers(
+                        new CommandsMap[]{commandsMap}, new int[]{command}));
+            } else {
+                subscribers.put(keys[command], added(keySubscribers, commandsMap, command));
+            }
+        }
+        if (Arrays.asList(keys).contains(null)) {
+            CommandsMap[] newPatternsSubscribers = Arrays.copyOf(patternsSubscribers,
+                    patternsSubscribers.length + 1);
+            newPatternsSubscribers[patternsSubscribers.length] = commandsMap;
+            patternsSubscribers = newPatternsSubscribers;
+        }
+    }
+
+    private static Subscribers added(Subscribers keySubscribers, CommandsMap commandsMap, int command) {
+        int size = keySubscribers.commandsMaps.length;
+        CommandsMap[] commandsMaps = new CommandsMap[size + 1];
+        int[] commands = new int[size + 1];
+        System.arraycopy(keySubscribers.commandsMaps, 0, commandsMaps, 0, size);
+        System.arraycopy(keySubscribers.commands, 0, commands, 0, size);
+        commandsMaps[size] = commandsMap;
+        commands[size] = command;
+        return new Subscribers(commandsMaps, commands);
+    }
+
+    /**
+     * unregister a {@link CommandsMap}, so it does not receive the broadcasts that start after
+     * this method returns, unregistering a {@link CommandsMap} that is not registered does nothing
+     *
+     * @param commandsMap the {@link CommandsMap} to unregister
+     */
+    public synchronized void unregister(CommandsMap commandsMap) {
+        if (!registered.remove(commandsMap)) {
+            return;
+        }
+        Object[] keys = keysOf(commandsMap);
+        for (Object key : keys) {
+            if (key == null) {
+                continue;
+            }
+            Subscribers keySubscribers = removed(subscribers.get(key), commandsMap);
+            if (keySubscribers == null) {
+                subscribers.remove(key);
+            } else {
+                subscribers.put(key, keySubscribers);
+            }
+        }
+        if (Arrays.asList(keys).contains(null)) {
+            List<CommandsMap> newPatternsSubscribers = new ArrayList<>(Arrays.asList(patternsSubscribers));
+            newPatternsSubscribers.remove(commandsMap);
+            patternsSubscribers = newPatternsSubscribers.toArray(new CommandsMap[0]);
+        }
+    }
+
+    private static Subscribers removed(Subscribers keySubscribers, CommandsMap commandsMap) {
+        int size = keySubscribers.commandsMaps.length;
+        if (size == 1) {
+            return null;
+        }
+        CommandsMap[] commandsMaps = new CommandsMap[size - 1];
+        int[] commands = new int[size - 1];
+        for (int i = 0, j = 0; i < size; i++) {
+            if (keySubscribers.commandsMaps[i] != commandsMap) {
+                commandsMaps[j] = keySubscribers.commandsMaps[i];
+                commands[j++] = keySubscribers.commands[i];
+            }
+        }
+        return new Subscribers(commandsMaps, commands);
+    }
+
+    /**
+     * @return the keys of the generated commands of the passed {@link CommandsMap}, where the key
+     * of every command is at it's index, or {@code null} if it is a prefix or a range of keys,
+     * these keys are read once for every generated class
+     */
+    private static Object[] keysOf(CommandsMap commandsMap) {
+        Object[] keys = keysOfClasses.get(commandsMap.getClass());
+        if (keys == null) {
+            keys = new Object[commandsMap.commandsCount()];
+            for (int command = 0; command < keys.length; command++) {
+                keys[command] = commandsMap.isKeyPattern(command) ? null : commandsMap.keyOf(command);
+            }
+            keysOfClasses.putIfAbsent(commandsMap.getClass(), keys);
+        }
+        return keys;
+    }
+
+    /**
+     * execute the methods that has no parameters, and are mapped to the passed key, in all the
+     * registered {@link CommandsMap} instances that has them
+     *
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     * @return the number of the {@link CommandsMap} instances that executed the key
+     */
+    public int broadcast(Object key) {
+        return broadcast(key, null, null);
+    }
+
+    /**
+     * execute the methods that has one parameter, and are mapped to the passed key, in all the
+     * registered {@link CommandsMap} instances that has them
+     *
+     * @param key       the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameter the parameter to pass to the methods
+     * @return the number of the {@link CommandsMap} instances that executed the key
+     */
+    public int broadcast(Object key, Object parameter) {
+        return broadcast(key, parameter, null);
+    }
+
+    /**
+     * execute the methods that has two parameters, and are mapped to the passed key, in all the
+     * registered {@link CommandsMap} instances that has them, in the order they were registered
+     * in (the instances that has it's exact key first), where an exception thrown by a method
+     * stops the broadcast
+     *
+     * @param key          the value that was set in the {@link com.annotations.Command} annotation
+     * @param parameterOne the first parameter to pass to the methods
+     * @param parameterTwo the second parameter to pass to the methods
+     * @return the number of the {@link CommandsMap} instances that executed the key
+     */
+    public int broadcast(Object key, Object parameterOne, Object parameterTwo) {
+        if (key == null) {
+            return 0;
+        }
+        int count = 0;
+        Subscribers keySubscribers = subscribers.get(key);
+        if (keySubscribers != null) {
+            CommandsMap[] commandsMaps = keySubscribers.commandsMaps;
+            int[] commands = keySubscribers.commands;
+            for (int i = 0; i < commandsMaps.length; i++) {
+                commandsMaps[i].dispatch(commands[i], parameterOne, parameterTwo);
+            }
+            count = commandsMaps.length;
+        }
+        for (CommandsMap commandsMap : patternsSubscribers) {
+            int command = patternCommandOf(commandsMap, key);
+            if (command != CommandsMap.NO_COMMAND) {
+                commandsMap.dispatch(command, parameterOne, parameterTwo);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the command of the pattern that the passed key matches, or
+     * {@link CommandsMap#NO_COMMAND} if it's exact key is found, as this command was already
+     * executed through the index of the exact keys
+     */
+    private static int patternCommandOf(CommandsMap commandsMap, Object key) {
+        int command = commandsMap.indexOf(key);
+        return command != CommandsMap.NO_COMMAND && commandsMap.isKeyPattern(command)
+                ? command
+                : CommandsMap.NO_COMMAND;
+    }
+
+    /**
+     * @param key the value that was set in the {@link com.annotations.Command} annotation
+     * @return the number of the registered {@link CommandsMap} instances that handle the key
+     */
+    public int subscribersCount(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        Subscribers keySubscribers = subscribers.get(key);
+        int count = keySubscribers == null ? 0 : keySubscribers.commandsMaps.length;
+        for (CommandsMap commandsMap : patternsSubscribers) {
+            if (patternCommandOf(commandsMap, key) != CommandsMap.NO_COMMAND) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
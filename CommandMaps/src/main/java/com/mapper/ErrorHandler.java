@@ -0,0 +1,21 @@
+package com.mapper;
+
+/**
+ * a handler of the errors thrown by the commands that no caller waits for, which are the
+ * commands annotated with {@link com.annotations.Command#async()} when they are executed through
+ * the {@code execute()} methods, the {@link BiCommand} instances that are executed with one
+ * parameter, and the events of a {@link CommandsQueue}, it is set through
+ * {@link CommandsMap#setErrorHandler(ErrorHandler)}, or for all the {@link CommandsMap}
+ * instances through {@link CommandsMap#setDefaultErrorHandler(ErrorHandler)}
+ */
+public interface ErrorHandler {
+
+    /**
+     * invoked with the error thrown by a command
+     *
+     * @param commandsMap the {@link CommandsMap} that executed the command
+     * @param key         the key of the command
+     * @param error       the thrown error
+     */
+    void onError(CommandsMap commandsMap, Object key, Throwable error);
+}
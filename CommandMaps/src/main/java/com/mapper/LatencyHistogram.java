@@ -0,0 +1,78 @@
+package com.mapper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * a histogram of latencies in nanoseconds with log-linear buckets, like the HdrHistogram, where
+ * every power of two range is split into {@link #SUB_BUCKETS} linear buckets, so every recorded
+ * value is off by less than {@code 1 / 32} of it, with a fixed size of {@link #BUCKETS} counters
+ * no matter how many values are recorded
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * the highest power of two that is tracked, larger values are recorded in the last bucket,
+     * which holds the values around 36 minutes
+     */
+    private static final int MAX_MAGNITUDE = 40;
+    static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos, int invocations) {
+        counts.addAndGet(bucketOf(nanos), invocations);
+    }
+
+    long[] copyCounts() {
+        long[] copy = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            copy[bucket] = counts.get(bucket);
+        }
+        return copy;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int magnitude = Math.min(MAX_MAGNITUDE, 63 - Long.numberOfLeadingZeros(nanos));
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) Math.min(SUB_BUCKETS - 1, (nanos >>> shift) - SUB_BUCKETS);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value that is recorded in the passed bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowestValue = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    /**
+     * @return the value that the passed percentage of the values are less than or equal to,
+     * or zero if no values are recorded
+     */
+    static long valueAtPercentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return highestValueOf(bucket);
+            }
+        }
+        return 0;
+    }
+}
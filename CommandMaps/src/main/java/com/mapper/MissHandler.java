@@ -0,0 +1,28 @@
+package com.mapper;
+
+/**
+ * a handler of the keys that a {@link CommandsMap} can not execute, it is set through
+ * {@link CommandsMap#setMissHandler(MissHandler)}, or for all the {@link CommandsMap} instances
+ * through {@link CommandsMap#setDefaultMissHandler(MissHandler)}, the available policies are
+ * created through {@link CommandsPolicy}
+ */
+public interface MissHandler {
+
+    /**
+     * invoked when a key is not mapped to a generated command nor to an added command
+     *
+     * @param commandsMap the {@link CommandsMap} that the key was passed to
+     * @param key         the key that is not mapped
+     */
+    void onMissed(CommandsMap commandsMap, Object key);
+
+    /**
+     * invoked when a generated command is executed after {@link CommandsMap#clear()}, so it's
+     * host object is not available
+     *
+     * @param commandsMap the cleared {@link CommandsMap}
+     * @param command     the index of the command, which is mapped to it's key through
+     *                    {@link CommandsMap#getCommandKey(int)}
+     */
+    void onCleared(CommandsMap commandsMap, int command);
+}
@@ -0,0 +1,203 @@
+package com.mapper;
+
+import com.annotations.Command;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the methods annotated with {@link Command} in a class that has no generated {@link CommandsMap},
+ * which are found through reflections once for every class, and made accessible once, so every
+ * execution of them is a single {@link Method#invoke(Object, Object...)}, that the JVM compiles
+ * to a direct call after it's first invocations
+ * <p>
+ * only the keys and the parameters of the methods are read, where the methods of the same key,
+ * the {@link Command#async()}, the {@link Command#pipeline()} and the {@link Command#cacheable()}
+ * are supported by the generated {@link CommandsMap} only
+ */
+final class ReflectiveCommands {
+
+    private static final ConcurrentHashMap<Class<?>, ReflectiveCommands> commandsOfClasses =
+            new ConcurrentHashMap<>();
+
+    private final Object[] keys;
+    private final Method[] methods;
+
+    private ReflectiveCommands(Object[] keys, Method[] methods) {
+        this.keys = keys;
+        this.methods = methods;
+    }
+
+    /**
+     * @param hostClass the class that holds the methods annotated with {@link Command}
+     * @return the commands of the passed class and it's super classes
+     * @throws IllegalArgumentException if a method takes more than two parameters, or two
+     *                                  methods has the same key
+     */
+    static ReflectiveCommands of(Class<?> hostClass) throws IllegalArgumentException {
+        ReflectiveCommands commands = commandsOfClasses.get(hostClass);
+        if (commands == null) {
+            commands = scan(hostClass);
+            ReflectiveCommands existing = commandsOfClasses.putIfAbsent(hostClass, commands);
+            commands = existing != null ? existing : commands;
+        }
+        return commands;
+    }
+
+    /**
+     * scan the class and it's super classes, where a key or a method that is declared again in a
+     * sub class is skipped in it's super classes
+     */
+    private static ReflectiveCommands scan(Class<?> hostClass) throws IllegalArgumentException {
+        Map<Object, Method> methodsOfKeys = new HashMap<>();
+        Set<String> subClassesMethods = new HashSet<>();
+        for (Class<?> clazz = hostClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            Map<Object, Method> classMethods = new HashMap<>();
+            for (Method method : clazz.getDeclaredMethods()) {
+                Command annotation = method.getAnnotation(Command.class);
+                if (annotation == null || !subClassesMethods.add(signatureOf(method))) {
+                    continue;
+                }
+                Object key = keyOf(annotation, method);
+                if (classMethods.put(key, method) != null) {
+                    throw new IllegalArgumentException("more than one method has the key " + key
+                            + " in " + clazz.getName() + ", use a generated CommandsMap instead");
+                }
+            }
+            for (Map.Entry<Object, Method> entry : classMethods.entrySet()) {
+                if (!methodsOfKeys.containsKey(entry.getKey())) {
+                    methodsOfKeys.put(entry.getKey(), accessible(entry.getValue()));
+                }
+            }
+        }
+        List<Object> keys = new ArrayList<>(methodsOfKeys.keySet());
+        Method[] methods = new Method[keys.size()];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = methodsOfKeys.get(keys.get(i));
+        }
+        return new ReflectiveCommands(keys.toArray(), methods);
+    }
+
+    private static String signatureOf(Method method) {
+        boolean overridable = !Modifier.isPrivate(method.getModifiers())
+                && !Modifier.isStatic(method.getModifiers());
+        return overridable
+                ? method.getName() + Arrays.toString(method.getParameterTypes())
+                : method.getDeclaringClass().getName() + "#" + method.getName()
+                + Arrays.toString(method.getParameterTypes());
+    }
+
+    private static Method accessible(Method method) throws IllegalArgumentException {
+        if (method.getParameterTypes().length > 2) {
+            throw new IllegalArgumentException("the method " + method.getName() + "() takes more "
+                    + "than two parameters, use a generated CommandsMap instead");
+        }
+        method.setAccessible(true);
+        return method;
+    }
+
+    /**
+     * @return the key set in the passed annotation, boxed like the keys passed to
+     * {@link CommandsMap#execute(Object, Object)}
+     */
+    @SuppressWarnings("unchecked")
+    private static Object keyOf(Command annotation, Method method) throws IllegalArgumentException {
+        if (annotation.value() != Command.NULL_INTEGER) {
+            return annotation.value();
+        } else if (annotation.keyLong() != Command.NULL_LONG) {
+            return annotation.keyLong();
+        } else if (annotation.keyDouble() != Command.NULL_DOUBLE) {
+            return annotation.keyDouble();
+        } else if (annotation.keyFloat() != Command.NULL_FLOAT) {
+            return annotation.keyFloat();
+        } else if (!Command.NULL_STRING.equals(annotation.keyString())) {
+            return annotation.keyString();
+        } else if (!Command.NULL_STRING.equals(annotation.keyEnum())
+                && annotation.enumType().isEnum()) {
+            return Enum.valueOf((Class<Enum>) annotation.enumType(), annotation.keyEnum());
+        } else if (annotation.keyClass() != Void.class) {
+            return annotation.keyClass();
+        } else if (!Command.NULL_STRING.equals(annotation.keyPrefix())
+                || annotation.keyFrom() != Command.NULL_INTEGER) {
+            throw new IllegalArgumentException("the key of the method " + method.getName()
+                    + "() is a prefix or a range, use a generated CommandsMap instead");
+        }
+        throw new IllegalArgumentException("no key is set for the method " + method.getName() + "()");
+    }
+
+    /**
+     * add the commands of the passed host object to the passed table of commands
+     *
+     * @param host     an instance of the scanned class
+     * @param commands the table to add the commands to
+     */
+    void addTo(Object host, Map<Object, CommandEntry> commands) {
+        for (int i = 0; i < keys.length; i++) {
+            MethodCommand command = new MethodCommand(host, methods[i]);
+            if (methods[i].getParameterTypes().length < 2) {
+                commands.put(keys[i], CommandEntry.of((com.mapper.Command) command));
+            } else {
+                commands.put(keys[i], CommandEntry.of((BiCommand) command));
+            }
+        }
+    }
+
+    /**
+     * a {@link com.mapper.Command} and a {@link BiCommand} that invoke a method found through
+     * reflections on it's host object, where the exceptions thrown by the method are thrown as is
+     * if unchecked, or wrapped in a {@link RuntimeException} if checked
+     */
+    private static final class MethodCommand implements com.mapper.Command, BiCommand {
+
+        private final Object host;
+        private final Method method;
+        private final int parametersCount;
+
+        MethodCommand(Object host, Method method) {
+            this.host = Modifier.isStatic(method.getModifiers()) ? null : host;
+            this.method = method;
+            this.parametersCount = method.getParameterTypes().length;
+        }
+
+        @Override
+        public void accept(Object parameter) {
+            accept(parameter, null);
+        }
+
+        @Override
+        public void accept(Object parameterOne, Object parameterTwo) {
+            try {
+                if (parametersCount == 0) {
+                    method.invoke(host);
+                } else if (parametersCount == 1) {
+                    method.invoke(host, parameterOne);
+                } else {
+                    method.invoke(host, parameterOne, parameterTwo);
+                }
+            } catch (InvocationTargetException e) {
+                throw unchecked(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static RuntimeException unchecked(Throwable error) {
+            if (error instanceof RuntimeException) {
+                return (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else {
+                return new RuntimeException(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.mapper;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * the values returned by a {@link com.annotations.Command#cacheable()} command, mapped to the
+ * parameters it was invoked with, which is created on the first execution of the command
+ * <p>
+ * the cached values are read from a {@link ConcurrentHashMap} without locking, while the new
+ * values are added under a lock, in a ring that grows up to {@link #capacity} slots as the values
+ * are added, where a full cache evicts through the CLOCK algorithm, that skips the values read
+ * since the hand passed them last, so a hit only sets a flag of it's entry instead of reordering
+ * a list, and the expired values are evicted before the values that were not read recently
+ * <p>
+ * a miss returns the {@link Miss} of the current generation of the cache, which is passed back
+ * with the value returned by the command, and {@link #clear()} starts a new generation, so a
+ * value that was computed before the cache was cleared (like by the previous host object) is
+ * not cached after it
+ * <p>
+ * the hits and misses are counted in stripes, like the {@link CommandsMetrics}, so the threads
+ * that read the same cache do not contend on the same counter, and two threads that miss the
+ * same parameters at the same time both invoke the command, where the last value is kept
+ */
+final class ResultsCache {
+
+    /**
+     * the initial number of slots of the ring, which is doubled until it reaches the capacity
+     */
+    private static final int INITIAL_SLOTS = 16;
+
+    /**
+     * the cache key of the commands that take no parameters, or are passed {@code null}
+     */
+    private static final Object NULL_PARAMETERS = new Object();
+
+    /**
+     * the distance between the counters of the stripes, so that each one is on a different
+     * cache line
+     */
+    private static final int PADDING = 8;
+    private static final int MAX_STRIPES = 64;
+
+    private final Object key;
+    private final int capacity;
+    private final long expiryNanos;
+    private final int stripeMask;
+    private final ConcurrentHashMap<Object, Entry> entries;
+    private final AtomicLongArray hitsAndMisses;
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile Miss miss = new Miss();
+    private Entry[] ring;
+    private int size;
+    private int hand;
+
+    /**
+     * the value returned by {@link #get(Object, Object)} if no value is cached for the passed
+     * parameters, there is one instance for every generation of the cache
+     */
+    static final class Miss {
+    }
+
+    /**
+     * a cached value, and the slot of the ring that holds it
+     */
+    private static final class Entry {
+
+        final Object parameters;
+        final Object value;
+        final long expiresAt;
+        final int slot;
+        volatile boolean referenced;
+
+        Entry(Object parameters, Object value, long expiresAt, int slot) {
+            this.parameters = parameters;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * the cache key of the commands that take two parameters
+     */
+    private static final class Parameters {
+
+        final Object parameterOne;
+        final Object parameterTwo;
+
+        Parameters(Object parameterOne, Object parameterTwo) {
+            this.parameterOne = parameterOne;
+            this.parameterTwo = parameterTwo;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Parameters)) {
+                return false;
+            }
+            Parameters other = (Parameters) object;
+            return CommandsMap.isSameKey(parameterOne, other.parameterOne)
+                    && CommandsMap.isSameKey(parameterTwo, other.parameterTwo);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (parameterOne == null ? 0 : parameterOne.hashCode())
+                    + (parameterTwo == null ? 0 : parameterTwo.hashCode());
+        }
+    }
+
+    /**
+     * @param key      the key of the command, to be reported in it's {@link CacheStats}
+     * @param capacity the maximum number of cached values
+     * @param millis   the time that a value stays cached, or {@code 0} if it does not expire
+     */
+    ResultsCache(Object key, int capacity, long millis) {
+        int stripes = Math.min(MAX_STRIPES,
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.key = key;
+        this.capacity = capacity;
+        this.expiryNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        this.stripeMask = stripes - 1;
+        this.entries = new ConcurrentHashMap<>();
+        this.hitsAndMisses = new AtomicLongArray(stripes * PADDING);
+        this.ring = new Entry[Math.min(capacity, INITIAL_SLOTS)];
+    }
+
+    private static Object cacheKey(Object parameterOne, Object parameterTwo) {
+        if (parameterTwo != null) {
+            return new Parameters(parameterOne, parameterTwo);
+        }
+        return parameterOne != null ? parameterOne : NULL_PARAMETERS;
+    }
+
+    private int stripe() {
+        return ((int) Thread.currentThread().getId() & stripeMask) * PADDING;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expiryNanos != 0 && now - entry.expiresAt >= 0;
+    }
+
+    /**
+     * @return the value cached for the passed parameters, or the {@link Miss} of the current
+     * generation if no value is cached, or it has expired
+     */
+    Object get(Object parameterOne, Object parameterTwo) {
+        Entry entry = entries.get(cacheKey(parameterOne, parameterTwo));
+        if (entry == null || (expiryNanos != 0 && isExpired(entry, System.nanoTime()))) {
+            hitsAndMisses.incrementAndGet(stripe() + 1);
+            return miss;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hitsAndMisses.incrementAndGet(stripe());
+        return entry.value;
+    }
+
+    /**
+     * cache the value returned for the passed parameters, replacing the value that was cached for
+     * them, or evicting the next value that was not read since the hand of the ring passed it,
+     * unless the cache was cleared since the passed {@link Miss} was returned
+     *
+     * @param miss the value returned by {@link #get(Object, Object)} before the command was
+     *             invoked
+     */
+    synchronized void put(Object parameterOne, Object parameterTwo, Object miss, Object value) {
+        if (miss != this.miss) {
+            return;
+        }
+        Object parameters = cacheKey(parameterOne, parameterTwo);
+        long now = expiryNanos == 0 ? 0 : System.nanoTime();
+        Entry replaced = entries.get(parameters);
+        int slot;
+        if (replaced != null) {
+            slot = replaced.slot;
+        } else if (size < capacity) {
+            if (size == ring.length) {
+                ring = Arrays.copyOf(ring, Math.min(capacity, size * 2));
+            }
+            slot = size++;
+        } else {
+            slot = evict(now);
+        }
+        Entry entry = new Entry(parameters, value, now + expiryNanos, slot);
+        ring[slot] = entry;
+        entries.put(parameters, entry);
+    }
+
+    /**
+     * move the hand of the ring to the first entry that has expired, or was not read since the
+     * hand passed it, clearing the read flags of the entries it passes, and remove this entry
+     *
+     * @return the slot of the evicted entry
+     */
+    private int evict(long now) {
+        Entry victim = ring[hand];
+        while (victim.referenced && !isExpired(victim, now)) {
+            victim.referenced = false;
+            hand = (hand + 1) % capacity;
+            victim = ring[hand];
+        }
+        entries.remove(victim.parameters, victim);
+        evictions.incrementAndGet();
+        int slot = hand;
+        hand = (hand + 1) % capacity;
+        return slot;
+    }
+
+    /**
+     * remove all the cached values, keeping the counters of the cache, and start a new
+     * generation, so the values of the commands that are running while it is cleared are not
+     * cached
+     */
+    synchronized void clear() {
+        miss = new Miss();
+        entries.clear();
+        ring = new Entry[Math.min(capacity, INITIAL_SLOTS)];
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * @return the {@link CacheStats} of this cache, read while it is being used, so the counters
+     * may miss the reads that are running while they are read
+     */
+    CacheStats stats() {
+        long hits = 0;
+        long misses = 0;
+        for (int counter = 0; counter < hitsAndMisses.length(); counter += PADDING) {
+            hits += hitsAndMisses.get(counter);
+            misses += hitsAndMisses.get(counter + 1);
+        }
+        return new CacheStats(key, entries.size(), capacity, hits, misses, evictions.get());
+    }
+}
@@ -0,0 +1,40 @@
+package com.benchmarks.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+/**
+ * two threads add commands to the same {@link com.mapper.CommandsMap} at the same time, none of
+ * them should be lost
+ */
+@JCStressTest
+@Outcome(id = "2", expect = Expect.ACCEPTABLE, desc = "both commands are added")
+@Outcome(expect = Expect.FORBIDDEN, desc = "a command is lost")
+@State
+public class AddCommandsStressTest {
+
+    private final StressCommandsMap commandsMap = new StressCommandsMap();
+    private final StressCommandsMap.CountingCommand command = new StressCommandsMap.CountingCommand();
+
+    @Actor
+    public void addFirst() {
+        commandsMap.add("first", command);
+    }
+
+    @Actor
+    public void addSecond() {
+        commandsMap.add("second", command);
+    }
+
+    @Arbiter
+    public void executeBoth(I_Result result) {
+        commandsMap.execute("first");
+        commandsMap.execute("second");
+        result.r1 = command.invocations;
+    }
+}
@@ -0,0 +1,47 @@
+package com.benchmarks.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * one thread executes a command while another thread clears the {@link com.mapper.CommandsMap},
+ * the command is either invoked on the host or skipped, and once cleared, it is never invoked
+ */
+@JCStressTest
+@Outcome(id = "1, 1", expect = Expect.ACCEPTABLE, desc = "executed before clear")
+@Outcome(id = "0, 0", expect = Expect.ACCEPTABLE, desc = "executed after clear")
+@Outcome(expect = Expect.FORBIDDEN, desc = "executed on a cleared map")
+@State
+public class ClearStressTest {
+
+    private final StressCommandsMap commandsMap = new StressCommandsMap();
+    private final StressCommandsMap.Host host = new StressCommandsMap.Host();
+    private boolean executed;
+
+    public ClearStressTest() {
+        commandsMap.setCommandsMapFactory(host);
+    }
+
+    @Actor
+    public void execute() {
+        commandsMap.executeInt(StressCommandsMap.KEY);
+        executed = host.invocations == 1;
+    }
+
+    @Actor
+    public void clear() {
+        commandsMap.clear();
+    }
+
+    @Arbiter
+    public void executeAfterClear(II_Result result) {
+        result.r1 = executed ? 1 : 0;
+        commandsMap.executeInt(StressCommandsMap.KEY);
+        result.r2 = host.invocations;
+    }
+}
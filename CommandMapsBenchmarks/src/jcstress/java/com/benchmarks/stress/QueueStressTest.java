@@ -0,0 +1,61 @@
+package com.benchmarks.stress;
+
+import com.mapper.CommandsQueue;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * three threads enqueue an event to a {@link CommandsQueue} of two slots at the same time, where
+ * the {@link CommandsQueue.Overflow#BLOCK} policy makes the third one wait for the drain thread
+ * if it did not take an event yet, so all the events should be executed before the drain thread
+ * ends
+ */
+@JCStressTest
+@Outcome(id = "3", expect = Expect.ACCEPTABLE, desc = "all the events are executed")
+@Outcome(expect = Expect.FORBIDDEN, desc = "an event is lost")
+@State
+public class QueueStressTest {
+
+    private final StressCommandsMap.Host host = new StressCommandsMap.Host();
+    private final CommandsQueue queue;
+
+    public QueueStressTest() {
+        StressCommandsMap commandsMap = new StressCommandsMap();
+        commandsMap.setCommandsMapFactory(host);
+        queue = CommandsQueue.of(commandsMap, 2, CommandsQueue.Overflow.BLOCK);
+    }
+
+    @Actor
+    public void enqueueFirst() {
+        queue.execute(StressCommandsMap.KEY);
+    }
+
+    @Actor
+    public void enqueueSecond() {
+        queue.execute(StressCommandsMap.KEY);
+    }
+
+    @Actor
+    public void enqueueThird() {
+        queue.execute(StressCommandsMap.KEY);
+    }
+
+    @Arbiter
+    public void drain(I_Result result) {
+        queue.close();
+        try {
+            queue.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        result.r1 = host.invocations;
+    }
+}
@@ -0,0 +1,48 @@
+package com.benchmarks.stress;
+
+import com.mapper.CommandsRegistry;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+/**
+ * two threads register a {@link com.mapper.CommandsMap} in the same {@link CommandsRegistry} at
+ * the same time, both of them should receive the broadcast that follows
+ */
+@JCStressTest
+@Outcome(id = "2", expect = Expect.ACCEPTABLE, desc = "both commands maps are registered")
+@Outcome(expect = Expect.FORBIDDEN, desc = "a commands map is lost")
+@State
+public class RegisterStressTest {
+
+    private final CommandsRegistry registry = new CommandsRegistry();
+    private final StressCommandsMap.Host host = new StressCommandsMap.Host();
+    private final StressCommandsMap first = new StressCommandsMap();
+    private final StressCommandsMap second = new StressCommandsMap();
+
+    public RegisterStressTest() {
+        first.setCommandsMapFactory(host);
+        second.setCommandsMapFactory(host);
+    }
+
+    @Actor
+    public void registerFirst() {
+        registry.register(first);
+    }
+
+    @Actor
+    public void registerSecond() {
+        registry.register(second);
+    }
+
+    @Arbiter
+    public void broadcast(I_Result result) {
+        registry.broadcast(StressCommandsMap.KEY);
+        result.r1 = host.invocations;
+    }
+}
@@ -0,0 +1,34 @@
+package com.benchmarks.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+/**
+ * one thread sets the host object while another thread executes a command, the command is
+ * either skipped or invoked on the fully constructed host
+ */
+@JCStressTest
+@Outcome(id = "0", expect = Expect.ACCEPTABLE, desc = "executed before the host was set")
+@Outcome(id = "1", expect = Expect.ACCEPTABLE, desc = "executed on the host")
+@Outcome(expect = Expect.FORBIDDEN, desc = "executed on a host that is not visible yet")
+@State
+public class SetHostStressTest {
+
+    private final StressCommandsMap commandsMap = new StressCommandsMap();
+    private final StressCommandsMap.Host host = new StressCommandsMap.Host();
+
+    @Actor
+    public void setHost() {
+        commandsMap.setCommandsMapFactory(host);
+    }
+
+    @Actor
+    public void execute(I_Result result) {
+        commandsMap.executeInt(StressCommandsMap.KEY);
+        result.r1 = host.invocations;
+    }
+}
@@ -0,0 +1,58 @@
+package com.benchmarks.stress;
+
+import com.mapper.Command;
+import com.mapper.CommandsMap;
+
+/**
+ * a {@link CommandsMap} with one command mapped to the key {@code 0}, written the same way
+ * the generated classes are written, and that exposes adding commands to the stress tests
+ */
+class StressCommandsMap extends CommandsMap {
+
+    static final int KEY = 0;
+
+    @Override
+    protected int indexOfInt(int key) {
+        switch (key) {
+            case KEY:
+                return 0;
+            default:
+                return NO_COMMAND;
+        }
+    }
+
+    @Override
+    protected int commandsCount() {
+        return 1;
+    }
+
+    @Override
+    protected Object keyOf(int index) {
+        return index == 0 ? KEY : null;
+    }
+
+    @Override
+    protected void invoke(int index, Object parameterOne, Object parameterTwo) {
+        Host host = getHostObject();
+        if (host != null) {
+            host.invocations++;
+        }
+    }
+
+    void add(Object key, Command command) {
+        addCommand(key, command);
+    }
+
+    static class Host {
+        int invocations;
+    }
+
+    static class CountingCommand implements Command {
+        int invocations;
+
+        @Override
+        public void accept(Object object) {
+            invocations++;
+        }
+    }
+}
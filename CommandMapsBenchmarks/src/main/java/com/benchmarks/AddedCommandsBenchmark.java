@@ -0,0 +1,93 @@
+package com.benchmarks;
+
+import com.mapper.BiCommand;
+import com.mapper.Command;
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures executing the commands added through {@code addCommand()} and {@code addBiCommand()},
+ * the {@code biCommandWithOneParameter} case is the one that used to miss the commands table
+ * before looking up the bi-commands table
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddedCommandsBenchmark {
+
+    @Param({"3", "50", "500", "5000"})
+    int size;
+
+    private AddedCommandsMap commandsMap;
+    private Object commandKey;
+    private Object biCommandKey;
+
+    @Setup
+    public void setup() {
+        commandsMap = new AddedCommandsMap(size);
+        commandKey = "command-" + (size / 2);
+        biCommandKey = "bi-command-" + (size / 2);
+    }
+
+    @Benchmark
+    public int command() {
+        commandsMap.execute(commandKey, this);
+        return commandsMap.counter;
+    }
+
+    @Benchmark
+    public int biCommand() {
+        commandsMap.execute(biCommandKey, this, this);
+        return commandsMap.counter;
+    }
+
+    @Benchmark
+    public int biCommandWithOneParameter() {
+        commandsMap.execute(biCommandKey, this);
+        return commandsMap.counter;
+    }
+
+    @Benchmark
+    public int commandWithTwoParameters() {
+        commandsMap.execute(commandKey, this, this);
+        return commandsMap.counter;
+    }
+
+    static class AddedCommandsMap extends CommandsMap {
+
+        int counter;
+
+        AddedCommandsMap(int size) {
+            for (int i = 0; i < size; i++) {
+                addCommand("command-" + i, new Command() {
+                    @Override
+                    public void accept(Object object) {
+                        counter++;
+                    }
+                });
+                addBiCommand("bi-command-" + i, new BiCommand() {
+                    @Override
+                    public void accept(Object parameterOne, Object parameterTwo) {
+                        counter++;
+                    }
+                });
+            }
+        }
+    }
+}
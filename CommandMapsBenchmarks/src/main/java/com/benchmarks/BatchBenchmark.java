@@ -0,0 +1,86 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares executing a batch of events one by one through {@link CommandsMap#execute(Object, Object)}
+ * with {@link CommandsMap#executeAll(Object[], Object[])} and
+ * {@link CommandsMap#executeAll(Object, Object[])}, the scores are per event
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int DISTINCT_KEYS = 4;
+
+    @Param({"50", "500"})
+    int size;
+
+    @Param({"INT", "STRING"})
+    KeyType keyType;
+
+    @Param({"1", "8", "64"})
+    int burst;
+
+    private BenchmarkHost host;
+    private CommandsMap commandsMap;
+    private Object[] keys;
+    private Object[] parameters;
+
+    @Setup
+    public void setup() {
+        host = keyType.host(size);
+        commandsMap = CommandsMap.of(host);
+        keys = new Object[BATCH_SIZE];
+        parameters = new Object[BATCH_SIZE];
+        int firstIndex = KeyType.oneParameterIndex(size);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            // the events of a batch are usually bursts of the same few keys
+            keys[i] = keyType.key(firstIndex + 2 * ((i / burst) % DISTINCT_KEYS));
+            parameters[i] = i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int executeEach() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            commandsMap.execute(keys[i], parameters[i]);
+        }
+        return host.counter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int executeAllKeys() {
+        commandsMap.executeAll(keys, parameters);
+        return host.counter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int executeAllSameKey() {
+        commandsMap.executeAll(keys[0], parameters);
+        return host.counter();
+    }
+}
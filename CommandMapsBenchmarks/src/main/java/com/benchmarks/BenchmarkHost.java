@@ -0,0 +1,20 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+/**
+ * implemented by the generated {@code com.benchmarks.hosts} classes, see the {@code generateHosts}
+ * task in the build.gradle of this module
+ */
+public interface BenchmarkHost {
+
+    /**
+     * @return a new instance of the generated {@link CommandsMap}, without reflections
+     */
+    CommandsMap newCommandsMap();
+
+    /**
+     * @return the number of the invoked commands
+     */
+    int counter();
+}
@@ -0,0 +1,75 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+import com.mapper.CommandsRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares broadcasting a key to many {@link CommandsMap} instances by executing it in every
+ * one of them, to broadcasting it through a {@link CommandsRegistry}, where one of every
+ * {@code handlersRatio} instances handles the key, and the rest miss it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    private static final int HOST_SIZE = 50;
+
+    @Param({"256"})
+    int commandsMapsCount;
+
+    @Param({"1", "8", "64"})
+    int handlersRatio;
+
+    private BenchmarkHost host;
+    private CommandsMap[] commandsMaps;
+    private CommandsRegistry registry;
+    private Object key;
+
+    @Setup
+    public void setup() {
+        host = KeyType.INT.host(HOST_SIZE);
+        commandsMaps = new CommandsMap[commandsMapsCount];
+        registry = new CommandsRegistry();
+        for (int i = 0; i < commandsMapsCount; i++) {
+            commandsMaps[i] = i % handlersRatio == 0
+                    ? CommandsMap.of(host)
+                    : CommandsMap.of(KeyType.STRING.host(HOST_SIZE));
+            commandsMaps[i].setMissHandler(CommandsPolicy.ignore());
+            registry.register(commandsMaps[i]);
+        }
+        key = KeyType.INT.key(KeyType.oneParameterIndex(HOST_SIZE));
+    }
+
+    @Benchmark
+    public int executeAll() {
+        for (CommandsMap commandsMap : commandsMaps) {
+            commandsMap.execute(key, this);
+        }
+        return host.counter();
+    }
+
+    @Benchmark
+    public int broadcast() {
+        registry.broadcast(key, this);
+        return host.counter();
+    }
+}
@@ -0,0 +1,68 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares querying a pure lookup that is invoked on every query, with querying it through a
+ * {@link com.annotations.Command#cacheable()} key, for a number of distinct parameters that fit
+ * in it's cache, where every query is a hit after the first ones, and that is larger than it's
+ * cache, where the parameters are evicted before they are queried again
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+    @Param({"64", "4096"})
+    public int distinctIds;
+
+    private CommandsMap commandsMap;
+    private Integer[] ids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        commandsMap = CommandsMap.of(new LookupHost());
+        ids = new Integer[distinctIds];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+    }
+
+    private Integer nextId() {
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return ids[next];
+    }
+
+    @Benchmark
+    public String query() {
+        return commandsMap.query("lookup", nextId());
+    }
+
+    @Benchmark
+    public String cachedQuery() {
+        return commandsMap.query("cachedLookup", nextId());
+    }
+
+    @Benchmark
+    public String typedCachedQuery() {
+        return LookupHost$$Commands.cachedLookup(commandsMap, nextId());
+    }
+}
@@ -0,0 +1,71 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures creating a {@link CommandsMap} through {@link CommandsMap#of(Object)} with and without
+ * the generated {@link com.mapper.CommandsMapsIndex}, and through invoking the constructor of the
+ * generated class directly
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreationBenchmark {
+
+    @Param({"INT", "STRING"})
+    KeyType keyType;
+
+    @Param({"3", "50", "500", "5000"})
+    int size;
+
+    private BenchmarkHost host;
+
+    @Setup
+    public void setup() {
+        host = keyType.host(size);
+    }
+
+    @Benchmark
+    public CommandsMap reflection() {
+        return CommandsMap.of(host);
+    }
+
+    @Benchmark
+    public CommandsMap index(IndexState indexState) {
+        return CommandsMap.of(host);
+    }
+
+    @Benchmark
+    public CommandsMap constructor() {
+        CommandsMap commandsMap = host.newCommandsMap();
+        commandsMap.setCommandsMapFactory(host);
+        return commandsMap;
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+
+        @Setup
+        public void setup() {
+            // every benchmark runs in it's own fork, so the index is not used by the others
+            CommandsMap.addIndex(new CommandsMaps$$Index());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures {@link CommandsMap#execute(Object, Object)} and
+ * {@link CommandsMap#execute(Object, Object, Object)} for every key type and host size, for
+ * commands that take one or two parameters, for keys that are not mapped, and for random keys
+ * that change on every execution, where the branches of the lookup can not be predicted
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private static final int MIXED_KEYS_COUNT = 1024;
+
+    @Param({"INT", "STRING", "LONG", "DOUBLE", "FLOAT"})
+    KeyType keyType;
+
+    @Param({"3", "50", "500", "5000"})
+    int size;
+
+    private BenchmarkHost host;
+    private CommandsMap commandsMap;
+    private Object oneParameterKey;
+    private Object twoParametersKey;
+    private Object missingKey;
+    private Object[] mixedKeys;
+    private int mixedKeyIndex;
+    private PrintStream systemErr;
+
+    @Setup
+    public void setup() {
+        host = keyType.host(size);
+        commandsMap = CommandsMap.of(host);
+        oneParameterKey = keyType.key(KeyType.oneParameterIndex(size));
+        twoParametersKey = keyType.key(KeyType.twoParametersIndex(size));
+        missingKey = keyType.key(size);
+        mixedKeys = new Object[MIXED_KEYS_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < mixedKeys.length; i++) {
+            mixedKeys[i] = keyType.key(random.nextInt(size));
+        }
+        systemErr = System.err;
+        System.setErr(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // the message of the missing keys is not part of the measurement
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setErr(systemErr);
+    }
+
+    @Benchmark
+    public int oneParameter() {
+        commandsMap.execute(oneParameterKey, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int twoParameters() {
+        commandsMap.execute(twoParametersKey, this, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int mixedKeys() {
+        mixedKeyIndex = (mixedKeyIndex + 1) & (MIXED_KEYS_COUNT - 1);
+        commandsMap.execute(mixedKeys[mixedKeyIndex], this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int missingKey() {
+        commandsMap.execute(missingKey, this);
+        return host.counter();
+    }
+}
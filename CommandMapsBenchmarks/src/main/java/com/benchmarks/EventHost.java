@@ -0,0 +1,166 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host where the same events are mapped by their {@code enum} constants, by the names of these
+ * constants, and by the classes of these events, for the {@link EventKeysBenchmark}
+ */
+@CommandsMapFactory
+public class EventHost {
+
+    public enum EventType {
+        OPENED, CLOSED, CLICKED, SCROLLED, RESIZED, FOCUSED, BLURRED, DRAGGED
+    }
+
+    public static final class Opened {
+    }
+
+    public static final class Closed {
+    }
+
+    public static final class Clicked {
+    }
+
+    public static final class Scrolled {
+    }
+
+    public static final class Resized {
+    }
+
+    public static final class Focused {
+    }
+
+    public static final class Blurred {
+    }
+
+    public static final class Dragged {
+    }
+
+    private int counter;
+
+    int counter() {
+        return counter;
+    }
+
+    @Command(keyEnum = "OPENED", enumType = EventType.class)
+    void onOpenedEnum(Object event) {
+        counter += 1;
+    }
+
+    @Command(keyString = "OPENED")
+    void onOpenedName(Object event) {
+        counter += 1;
+    }
+
+    @Command(keyClass = Opened.class)
+    void onOpenedClass(Object event) {
+        counter += 1;
+    }
+
+    @Command(keyEnum = "CLOSED", enumType = EventType.class)
+    void onClosedEnum(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyString = "CLOSED")
+    void onClosedName(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyClass = Closed.class)
+    void onClosedClass(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyEnum = "CLICKED", enumType = EventType.class)
+    void onClickedEnum(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyString = "CLICKED")
+    void onClickedName(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyClass = Clicked.class)
+    void onClickedClass(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyEnum = "SCROLLED", enumType = EventType.class)
+    void onScrolledEnum(Object event) {
+        counter += 4;
+    }
+
+    @Command(keyString = "SCROLLED")
+    void onScrolledName(Object event) {
+        counter += 4;
+    }
+
+    @Command(keyClass = Scrolled.class)
+    void onScrolledClass(Object event) {
+        counter += 4;
+    }
+
+    @Command(keyEnum = "RESIZED", enumType = EventType.class)
+    void onResizedEnum(Object event) {
+        counter += 5;
+    }
+
+    @Command(keyString = "RESIZED")
+    void onResizedName(Object event) {
+        counter += 5;
+    }
+
+    @Command(keyClass = Resized.class)
+    void onResizedClass(Object event) {
+        counter += 5;
+    }
+
+    @Command(keyEnum = "FOCUSED", enumType = EventType.class)
+    void onFocusedEnum(Object event) {
+        counter += 6;
+    }
+
+    @Command(keyString = "FOCUSED")
+    void onFocusedName(Object event) {
+        counter += 6;
+    }
+
+    @Command(keyClass = Focused.class)
+    void onFocusedClass(Object event) {
+        counter += 6;
+    }
+
+    @Command(keyEnum = "BLURRED", enumType = EventType.class)
+    void onBlurredEnum(Object event) {
+        counter += 7;
+    }
+
+    @Command(keyString = "BLURRED")
+    void onBlurredName(Object event) {
+        counter += 7;
+    }
+
+    @Command(keyClass = Blurred.class)
+    void onBlurredClass(Object event) {
+        counter += 7;
+    }
+
+    @Command(keyEnum = "DRAGGED", enumType = EventType.class)
+    void onDraggedEnum(Object event) {
+        counter += 8;
+    }
+
+    @Command(keyString = "DRAGGED")
+    void onDraggedName(Object event) {
+        counter += 8;
+    }
+
+    @Command(keyClass = Dragged.class)
+    void onDraggedClass(Object event) {
+        counter += 8;
+    }
+}
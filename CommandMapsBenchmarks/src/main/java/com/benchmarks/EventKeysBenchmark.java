@@ -0,0 +1,82 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares executing random events by their {@code enum} constants, by the names of these
+ * constants (which is how {@code enum} events were executed before the {@code enum} keys), and
+ * by the classes of the events
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventKeysBenchmark {
+
+    private static final int EVENTS_COUNT = 1024;
+
+    private EventHost host;
+    private CommandsMap commandsMap;
+    private EventHost.EventType[] types;
+    private Object[] events;
+    private int eventIndex;
+
+    @Setup
+    public void setup() {
+        host = new EventHost();
+        commandsMap = CommandsMap.of(host);
+        Object[] eventsOfTypes = {new EventHost.Opened(), new EventHost.Closed(),
+                new EventHost.Clicked(), new EventHost.Scrolled(), new EventHost.Resized(),
+                new EventHost.Focused(), new EventHost.Blurred(), new EventHost.Dragged()};
+        types = new EventHost.EventType[EVENTS_COUNT];
+        events = new Object[EVENTS_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < EVENTS_COUNT; i++) {
+            int type = random.nextInt(eventsOfTypes.length);
+            types[i] = EventHost.EventType.values()[type];
+            events[i] = eventsOfTypes[type];
+        }
+    }
+
+    private int nextEvent() {
+        eventIndex = (eventIndex + 1) & (EVENTS_COUNT - 1);
+        return eventIndex;
+    }
+
+    @Benchmark
+    public int enumKey() {
+        int event = nextEvent();
+        commandsMap.execute(types[event], events[event]);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int enumNameKey() {
+        int event = nextEvent();
+        commandsMap.execute(types[event].name(), events[event]);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int classKey() {
+        int event = nextEvent();
+        commandsMap.execute(events[event].getClass(), events[event]);
+        return host.counter();
+    }
+}
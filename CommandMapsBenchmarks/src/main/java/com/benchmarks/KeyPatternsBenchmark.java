@@ -0,0 +1,81 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures executing random keys that match the prefixes and the ranges of keys of the
+ * {@link RouteHost}, compared to random exact keys of the same host
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyPatternsBenchmark {
+
+    private static final int KEYS_COUNT = 1024;
+    private static final String[] EXACT_KEYS =
+            {"order.created", "order.cancelled", "order.paid", "order.shipped"};
+
+    private RouteHost host;
+    private CommandsMap commandsMap;
+    private String[] exactKeys;
+    private String[] prefixedKeys;
+    private int[] rangeKeys;
+    private int keyIndex;
+
+    @Setup
+    public void setup() {
+        host = new RouteHost();
+        commandsMap = CommandsMap.of(host);
+        exactKeys = new String[KEYS_COUNT];
+        prefixedKeys = new String[KEYS_COUNT];
+        rangeKeys = new int[KEYS_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            exactKeys[i] = EXACT_KEYS[random.nextInt(EXACT_KEYS.length)];
+            prefixedKeys[i] = RouteHost.PREFIXES[random.nextInt(RouteHost.PREFIXES.length)]
+                    + "event-" + random.nextInt(1000);
+            rangeKeys[i] = RouteHost.RANGE_SIZE
+                    + random.nextInt(RouteHost.RANGE_SIZE * RouteHost.RANGES_COUNT);
+        }
+    }
+
+    private int nextKey() {
+        keyIndex = (keyIndex + 1) & (KEYS_COUNT - 1);
+        return keyIndex;
+    }
+
+    @Benchmark
+    public int exactKey() {
+        commandsMap.execute(exactKeys[nextKey()], this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int prefixedKey() {
+        commandsMap.execute(prefixedKeys[nextKey()], this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int rangeKey() {
+        commandsMap.executeInt(rangeKeys[nextKey()], this);
+        return host.counter();
+    }
+}
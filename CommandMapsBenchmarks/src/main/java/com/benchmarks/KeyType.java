@@ -0,0 +1,80 @@
+package com.benchmarks;
+
+/**
+ * the key types supported by {@link com.annotations.Command}, matching the keys of the generated
+ * {@code com.benchmarks.hosts} classes
+ */
+public enum KeyType {
+
+    INT("Int") {
+        @Override
+        public Object key(int index) {
+            return index;
+        }
+    },
+    STRING("String") {
+        @Override
+        public Object key(int index) {
+            return "key-" + index;
+        }
+    },
+    LONG("Long") {
+        @Override
+        public Object key(int index) {
+            return (long) index;
+        }
+    },
+    DOUBLE("Double") {
+        @Override
+        public Object key(int index) {
+            return index + 0.5D;
+        }
+    },
+    FLOAT("Float") {
+        @Override
+        public Object key(int index) {
+            return index + 0.5F;
+        }
+    };
+
+    private final String hostPrefix;
+
+    KeyType(String hostPrefix) {
+        this.hostPrefix = hostPrefix;
+    }
+
+    /**
+     * @param index the index of the command in the generated host
+     * @return the key of the command, an index that is not less than the host size is a miss
+     */
+    public abstract Object key(int index);
+
+    /**
+     * @param size the number of commands in the host
+     * @return a new instance of the generated host
+     */
+    public BenchmarkHost host(int size) {
+        String className = "com.benchmarks.hosts." + hostPrefix + "Host" + size;
+        try {
+            return (BenchmarkHost) Class.forName(className).newInstance();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("no generated host : " + className, e);
+        }
+    }
+
+    /**
+     * @param size the number of commands in the host
+     * @return the index of a command in the middle of the host that takes one parameter
+     */
+    public static int oneParameterIndex(int size) {
+        return (size / 2) & ~1;
+    }
+
+    /**
+     * @param size the number of commands in the host
+     * @return the index of a command in the middle of the host that takes two parameters
+     */
+    public static int twoParametersIndex(int size) {
+        return oneParameterIndex(size) + 1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host with a pure lookup, mapped to a key that invokes it on every execution, and to a
+ * {@link Command#cacheable()} key, for the {@link CacheBenchmark}
+ */
+@CommandsMapFactory
+public class LookupHost {
+
+    @Command(keyString = "lookup")
+    String lookup(Integer id) {
+        return label(id);
+    }
+
+    @Command(keyString = "cachedLookup", cacheable = true, cacheSize = 1024)
+    String cachedLookup(Integer id) {
+        return label(id);
+    }
+
+    private static String label(int id) {
+        return String.format("item-%08x", Integer.reverse(id) * 31);
+    }
+}
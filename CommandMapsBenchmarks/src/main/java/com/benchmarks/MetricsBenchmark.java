@@ -0,0 +1,77 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures the cost of {@link CommandsMap#enableMetrics()} on
+ * {@link CommandsMap#execute(Object, Object)} and {@link CommandsMap#executeAll(Object, Object[])},
+ * from one thread and from four threads that execute the same command
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"false", "true"})
+    boolean metrics;
+
+    @Param({"INT", "STRING"})
+    KeyType keyType;
+
+    private BenchmarkHost host;
+    private CommandsMap commandsMap;
+    private Object key;
+    private Object[] parameters;
+
+    @Setup
+    public void setup() {
+        host = keyType.host(50);
+        commandsMap = CommandsMap.of(host);
+        if (metrics) {
+            commandsMap.enableMetrics();
+        }
+        key = keyType.key(KeyType.oneParameterIndex(50));
+        parameters = new Object[BATCH_SIZE];
+    }
+
+    @Benchmark
+    public int execute() {
+        commandsMap.execute(key, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int executeContended() {
+        commandsMap.execute(key, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int executeAll() {
+        commandsMap.executeAll(key, parameters);
+        return host.counter();
+    }
+}
@@ -0,0 +1,54 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares executing three handlers of the same event through three keys with executing them
+ * through one key that is mapped to all of them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+    private PipelineHost host;
+    private CommandsMap commandsMap;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        host = new PipelineHost();
+        commandsMap = CommandsMap.of(host);
+        keys = new String[]{"log", "track", "render", "event"};
+    }
+
+    @Benchmark
+    public int executeEachKey() {
+        commandsMap.execute(keys[0], this);
+        commandsMap.execute(keys[1], this);
+        commandsMap.execute(keys[2], this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int executePipeline() {
+        commandsMap.execute(keys[3], this);
+        return host.counter();
+    }
+}
@@ -0,0 +1,48 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host where the same three handlers are mapped to three keys, and to one key through a
+ * {@link com.annotations.Pipeline#FAN_OUT} pipeline, for the {@link PipelineBenchmark}
+ */
+@CommandsMapFactory
+public class PipelineHost {
+
+    private int counter;
+
+    int counter() {
+        return counter;
+    }
+
+    @Command(keyString = "log")
+    void log(Object event) {
+        counter++;
+    }
+
+    @Command(keyString = "track")
+    void track(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyString = "render")
+    void render(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyString = "event")
+    void logEvent(Object event) {
+        counter++;
+    }
+
+    @Command(keyString = "event", order = 1)
+    void trackEvent(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyString = "event", order = 2)
+    void renderEvent(Object event) {
+        counter += 3;
+    }
+}
@@ -0,0 +1,77 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares passing a primitive key to {@link CommandsMap#execute(Object, Object)}, which boxes
+ * it on every call, with {@link CommandsMap#executeInt(int, Object)} and
+ * {@link CommandsMap#executeLong(long, Object)}, run with {@code -prof gc} to see the allocations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveKeysBenchmark {
+
+    @Param({"3", "50", "500", "5000"})
+    int size;
+
+    private BenchmarkHost intHost;
+    private BenchmarkHost longHost;
+    private CommandsMap intCommandsMap;
+    private CommandsMap longCommandsMap;
+    private int intKey;
+    private long longKey;
+
+    @Setup
+    public void setup() {
+        intHost = KeyType.INT.host(size);
+        longHost = KeyType.LONG.host(size);
+        intCommandsMap = CommandsMap.of(intHost);
+        longCommandsMap = CommandsMap.of(longHost);
+        // starting from the size of 500, the keys are out of the Integer and Long caches
+        // range, so boxing them allocates
+        intKey = KeyType.oneParameterIndex(size);
+        longKey = intKey;
+    }
+
+    @Benchmark
+    public int boxedInt() {
+        intCommandsMap.execute(intKey, this);
+        return intHost.counter();
+    }
+
+    @Benchmark
+    public int executeInt() {
+        intCommandsMap.executeInt(intKey, this);
+        return intHost.counter();
+    }
+
+    @Benchmark
+    public int boxedLong() {
+        longCommandsMap.execute(longKey, this);
+        return longHost.counter();
+    }
+
+    @Benchmark
+    public int executeLong() {
+        longCommandsMap.executeLong(longKey, this);
+        return longHost.counter();
+    }
+}
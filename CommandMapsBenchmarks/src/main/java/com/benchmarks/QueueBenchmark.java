@@ -0,0 +1,108 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsQueue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares enqueuing events from many threads to a {@link CommandsQueue}, for every
+ * {@link CommandsQueue.Overflow} policy, to enqueuing their keys to an
+ * {@link ArrayBlockingQueue} that a thread takes them from and executes them one by one, where
+ * the producers are faster than the drain thread, so the queues are full most of the time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class QueueBenchmark {
+
+    private static final int SIZE = 50;
+
+    @Param({"1024"})
+    int capacity;
+
+    private BenchmarkHost host;
+    private CommandsMap commandsMap;
+    private Object key;
+    private CommandsQueue blockingCommandsQueue;
+    private CommandsQueue droppingCommandsQueue;
+    private CommandsQueue rejectingCommandsQueue;
+    private BlockingQueue<Object> blockingQueue;
+    private Thread blockingQueueThread;
+
+    @Setup
+    public void setup() {
+        host = KeyType.INT.host(SIZE);
+        commandsMap = CommandsMap.of(host);
+        key = KeyType.INT.key(KeyType.oneParameterIndex(SIZE));
+        blockingCommandsQueue = CommandsQueue.of(commandsMap, capacity, CommandsQueue.Overflow.BLOCK);
+        droppingCommandsQueue = CommandsQueue.of(commandsMap, capacity, CommandsQueue.Overflow.DROP_OLDEST);
+        rejectingCommandsQueue = CommandsQueue.of(commandsMap, capacity, CommandsQueue.Overflow.REJECT);
+        blockingQueue = new ArrayBlockingQueue<>(capacity);
+        blockingQueueThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        commandsMap.execute(blockingQueue.take(), this);
+                    }
+                } catch (InterruptedException e) {
+                    // the benchmark ended
+                }
+            }
+        });
+        blockingQueueThread.setDaemon(true);
+        blockingQueueThread.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        blockingCommandsQueue.close();
+        droppingCommandsQueue.close();
+        rejectingCommandsQueue.close();
+        blockingQueueThread.interrupt();
+        blockingCommandsQueue.awaitTermination(1, TimeUnit.MINUTES);
+        blockingQueueThread.join();
+    }
+
+    @Benchmark
+    public boolean block() {
+        return blockingCommandsQueue.execute(key, this);
+    }
+
+    @Benchmark
+    public boolean dropOldest() {
+        return droppingCommandsQueue.execute(key, this);
+    }
+
+    @Benchmark
+    public boolean reject() {
+        return rejectingCommandsQueue.execute(key, this);
+    }
+
+    @Benchmark
+    public Object arrayBlockingQueue() throws InterruptedException {
+        blockingQueue.put(key);
+        return key;
+    }
+}
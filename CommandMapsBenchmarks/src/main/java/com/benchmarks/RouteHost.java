@@ -0,0 +1,122 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host that routes {@code String} keys by their prefixes, and {@code int} keys by their ranges,
+ * next to a few exact keys, for the {@link KeyPatternsBenchmark}
+ */
+@CommandsMapFactory
+public class RouteHost {
+
+    static final String[] PREFIXES = {"order.", "order.refund.", "user.", "payment.", "cart.", "shipping.", "inventory.", "auth."};
+    static final int RANGE_SIZE = 100;
+    static final int RANGES_COUNT = 8;
+
+    private int counter;
+
+    int counter() {
+        return counter;
+    }
+
+    @Command(keyPrefix = "order.")
+    void onOrder(Object event) {
+        counter += 1;
+    }
+
+    @Command(keyPrefix = "order.refund.")
+    void onRefund(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyPrefix = "user.")
+    void onUser(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyPrefix = "payment.")
+    void onPayment(Object event) {
+        counter += 4;
+    }
+
+    @Command(keyPrefix = "cart.")
+    void onCart(Object event) {
+        counter += 5;
+    }
+
+    @Command(keyPrefix = "shipping.")
+    void onShipping(Object event) {
+        counter += 6;
+    }
+
+    @Command(keyPrefix = "inventory.")
+    void onInventory(Object event) {
+        counter += 7;
+    }
+
+    @Command(keyPrefix = "auth.")
+    void onAuth(Object event) {
+        counter += 8;
+    }
+
+    @Command(keyString = "order.created")
+    void onOrderCreated(Object event) {
+        counter += 1;
+    }
+
+    @Command(keyString = "order.cancelled")
+    void onOrderCancelled(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyString = "order.paid")
+    void onOrderPaid(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyString = "order.shipped")
+    void onOrderShipped(Object event) {
+        counter += 4;
+    }
+
+    @Command(keyFrom = 100, keyTo = 199)
+    void onCodes100(Object event) {
+        counter += 1;
+    }
+
+    @Command(keyFrom = 200, keyTo = 299)
+    void onCodes200(Object event) {
+        counter += 2;
+    }
+
+    @Command(keyFrom = 300, keyTo = 399)
+    void onCodes300(Object event) {
+        counter += 3;
+    }
+
+    @Command(keyFrom = 400, keyTo = 499)
+    void onCodes400(Object event) {
+        counter += 4;
+    }
+
+    @Command(keyFrom = 500, keyTo = 599)
+    void onCodes500(Object event) {
+        counter += 5;
+    }
+
+    @Command(keyFrom = 600, keyTo = 699)
+    void onCodes600(Object event) {
+        counter += 6;
+    }
+
+    @Command(keyFrom = 700, keyTo = 799)
+    void onCodes700(Object event) {
+        counter += 7;
+    }
+
+    @Command(keyFrom = 800, keyTo = 899)
+    void onCodes800(Object event) {
+        counter += 8;
+    }
+}
@@ -0,0 +1,106 @@
+package com.benchmarks;
+
+import com.mapper.Command;
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares executing a command of a generated {@link CommandsMap}, to executing the commands of
+ * a {@link CommandsMap} built at runtime, from a {@link Command} or from the annotated methods of
+ * a class that has no generated {@link CommandsMap}, and to looking up the annotated method and
+ * invoking it through reflections on every execution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuntimeCommandsBenchmark {
+
+    private static final int SIZE = 50;
+    private static final String PLUGIN_KEY = "plugin";
+
+    private BenchmarkHost host;
+    private CommandsMap generatedCommandsMap;
+    private Object generatedKey;
+    private PluginHost pluginHost;
+    private CommandsMap builtCommandsMap;
+    private CommandsMap scannedCommandsMap;
+
+    /**
+     * a class with an annotated method, that is not annotated with
+     * {@link com.annotations.CommandsMapFactory}, like the classes of plugins loaded at runtime
+     */
+    public static class PluginHost {
+
+        int counter;
+
+        @com.annotations.Command(keyString = PLUGIN_KEY)
+        void plugin(Object parameter) {
+            counter++;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        host = KeyType.STRING.host(SIZE);
+        generatedCommandsMap = CommandsMap.of(host);
+        generatedKey = KeyType.STRING.key(KeyType.oneParameterIndex(SIZE));
+        pluginHost = new PluginHost();
+        builtCommandsMap = CommandsMap.builder()
+                .add(PLUGIN_KEY, new Command() {
+                    @Override
+                    public void accept(Object object) {
+                        pluginHost.plugin(object);
+                    }
+                })
+                .build();
+        scannedCommandsMap = CommandsMap.builder()
+                .addCommands(pluginHost)
+                .build();
+    }
+
+    @Benchmark
+    public int generated() {
+        generatedCommandsMap.execute(generatedKey, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int built() {
+        builtCommandsMap.execute(PLUGIN_KEY, this);
+        return pluginHost.counter;
+    }
+
+    @Benchmark
+    public int scanned() {
+        scannedCommandsMap.execute(PLUGIN_KEY, this);
+        return pluginHost.counter;
+    }
+
+    @Benchmark
+    public int lookupAndInvoke() throws Exception {
+        for (Method method : PluginHost.class.getDeclaredMethods()) {
+            com.annotations.Command annotation = method.getAnnotation(com.annotations.Command.class);
+            if (annotation != null && PLUGIN_KEY.equals(annotation.keyString())) {
+                method.setAccessible(true);
+                method.invoke(pluginHost, this);
+            }
+        }
+        return pluginHost.counter;
+    }
+}
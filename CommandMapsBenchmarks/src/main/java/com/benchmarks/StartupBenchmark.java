@@ -0,0 +1,62 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures the cold start of a generated {@link CommandsMap} in a new JVM, from loading the host
+ * class to creating it's {@link CommandsMap}, and to it's first dispatch, through reflections or
+ * through the generated {@link com.mapper.CommandsMapsIndex} of the 20 hosts of this module,
+ * where every fork measures one shot, run it with {@code -prof cl} to count the loaded classes :
+ * <pre>
+ * ./gradlew :CommandMapsBenchmarks:jmh -PjmhArgs="StartupBenchmark -prof cl"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    @Param({"INT", "STRING"})
+    KeyType keyType;
+
+    @Param({"5000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean indexed;
+
+    @Benchmark
+    public CommandsMap create() {
+        return newCommandsMap();
+    }
+
+    @Benchmark
+    public CommandsMap firstDispatch() {
+        CommandsMap commandsMap = newCommandsMap();
+        commandsMap.execute(keyType.key(KeyType.oneParameterIndex(size)), this);
+        return commandsMap;
+    }
+
+    private CommandsMap newCommandsMap() {
+        if (indexed) {
+            CommandsMap.addIndex(new CommandsMaps$$Index());
+        }
+        return CommandsMap.of(keyType.host(size));
+    }
+}
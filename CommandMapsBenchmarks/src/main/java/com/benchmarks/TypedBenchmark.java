@@ -0,0 +1,68 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares executing a command of three primitive parameters through
+ * {@link CommandsMap#executeWith(Object, Object...)}, which boxes them in an array, with the
+ * generated {@code TypedHost$$Commands}, which passes them as is, and the same for
+ * {@link CommandsMap#query(Object, Object, Object)}, which boxes the returned value
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedBenchmark {
+
+    private TypedHost host;
+    private CommandsMap commandsMap;
+    private int x = 1000;
+    private int y = 2000;
+    private long time = 3000;
+    private Integer boxedX = 1000;
+    private Integer boxedY = 2000;
+
+    @Setup
+    public void setup() {
+        host = new TypedHost();
+        commandsMap = CommandsMap.of(host);
+    }
+
+    @Benchmark
+    public long executeWith() {
+        commandsMap.executeWith("move", x, y, time);
+        return host.counter();
+    }
+
+    @Benchmark
+    public long typedCommand() {
+        TypedHost$$Commands.move(commandsMap, x, y, time);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int query() {
+        Integer distance = commandsMap.query("distance", boxedX, boxedY);
+        return distance;
+    }
+
+    @Benchmark
+    public int typedQuery() {
+        return TypedHost$$Commands.distance(commandsMap, boxedX, boxedY);
+    }
+}
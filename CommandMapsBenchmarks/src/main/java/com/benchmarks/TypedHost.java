@@ -0,0 +1,28 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host with a command that takes three primitive parameters, and a command that returns a
+ * primitive value, for the {@link TypedBenchmark}
+ */
+@CommandsMapFactory
+public class TypedHost {
+
+    private long counter;
+
+    long counter() {
+        return counter;
+    }
+
+    @Command(keyString = "move")
+    void move(int x, int y, long time) {
+        counter += x + y + time;
+    }
+
+    @Command(keyString = "distance")
+    int distance(Integer x, Integer y) {
+        return Math.abs(x - y);
+    }
+}
@@ -0,0 +1,71 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares executing a command of a host object that is held strongly through
+ * {@link CommandsMap#of(Object)}, to one that is held weakly through
+ * {@link CommandsMap#ofWeak(Object)}, and to executing it after the weakly held host object was
+ * garbage collected, where the command is passed to an ignoring
+ * {@link com.mapper.MissHandler}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeakHostBenchmark {
+
+    private static final int SIZE = 50;
+
+    private BenchmarkHost host;
+    private CommandsMap strongCommandsMap;
+    private CommandsMap weakCommandsMap;
+    private CommandsMap collectedCommandsMap;
+    private Object key;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        host = KeyType.INT.host(SIZE);
+        strongCommandsMap = CommandsMap.of(host);
+        weakCommandsMap = CommandsMap.ofWeak(host);
+        collectedCommandsMap = CommandsMap.ofWeak(KeyType.INT.host(SIZE));
+        collectedCommandsMap.setMissHandler(CommandsPolicy.ignore());
+        key = KeyType.INT.key(KeyType.oneParameterIndex(SIZE));
+        System.gc();
+        Thread.sleep(100);
+    }
+
+    @Benchmark
+    public int strongHost() {
+        strongCommandsMap.execute(key, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int weakHost() {
+        weakCommandsMap.execute(key, this);
+        return host.counter();
+    }
+
+    @Benchmark
+    public int collectedHost() {
+        collectedCommandsMap.execute(key, this);
+        return host.counter();
+    }
+}
@@ -0,0 +1,62 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+import com.mapper.CommandsMap;
+
+/**
+ * a host with {@link Command#cacheable()} commands that count their invocations, for the
+ * {@link ResultsCacheTest}
+ */
+@CommandsMapFactory
+public class CacheFixture {
+
+    int calls;
+    CommandsMap commandsMap;
+
+    @Command(keyString = "square", cacheable = true, cacheSize = 4)
+    int square(int value) {
+        calls++;
+        return value * value;
+    }
+
+    @Command(keyString = "join", cacheable = true)
+    String join(String first, String second) {
+        calls++;
+        return first + second;
+    }
+
+    @Command(keyString = "nothing", cacheable = true)
+    Object nothing() {
+        calls++;
+        return null;
+    }
+
+    @Command(keyString = "expiring", cacheable = true, cacheMillis = 20)
+    int expiring(String value) {
+        calls++;
+        return value.length();
+    }
+
+    @Command(keyString = "checked", cacheable = true)
+    int checked(Integer value) {
+        calls++;
+        if (value < 0) {
+            throw new IllegalArgumentException("negative " + value);
+        }
+        return value;
+    }
+
+    @Command(keyString = "clearing", cacheable = true)
+    int clearing(int value) {
+        calls++;
+        commandsMap.clearCache();
+        return value;
+    }
+
+    @Command(keyString = "large", cacheable = true, cacheSize = 65536)
+    int large(int value) {
+        calls++;
+        return -value;
+    }
+}
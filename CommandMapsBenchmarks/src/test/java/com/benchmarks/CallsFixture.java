@@ -0,0 +1,50 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host with commands that return values, take more than two parameters, throw, or run
+ * asynchronously, and count their invocations, for the tests of executing and querying
+ */
+@CommandsMapFactory
+public class CallsFixture {
+
+    volatile int calls;
+    volatile String asyncThread;
+
+    @Command(keyString = "none")
+    void none() {
+        calls++;
+    }
+
+    @Command(keyString = "concat")
+    String concat(String first, String second, String third) {
+        calls++;
+        return first + second + third;
+    }
+
+    @Command(keyString = "sum")
+    long sum(int first, int second, long third) {
+        calls++;
+        return first + second + third;
+    }
+
+    @Command(keyString = "length")
+    int length(String value) {
+        calls++;
+        return value.length();
+    }
+
+    @Command(keyString = "fail")
+    void fail(Object event) {
+        calls++;
+        throw new IllegalStateException("failed " + event);
+    }
+
+    @Command(keyString = "async", async = true)
+    void async(Object event) {
+        calls++;
+        asyncThread = Thread.currentThread().getName();
+    }
+}
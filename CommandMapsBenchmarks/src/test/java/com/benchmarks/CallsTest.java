@@ -0,0 +1,156 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * queries the commands of the {@link CallsFixture}, executes them with more than two
+ * parameters, in batches and asynchronously, and passes their errors
+ */
+public class CallsTest {
+
+    private CallsFixture host;
+    private CommandsMap commandsMap;
+
+    @Before
+    public void setup() {
+        host = new CallsFixture();
+        commandsMap = CommandsMap.of(host);
+    }
+
+    @Test
+    public void queryReturnsTheValueOfTheMethod() {
+        assertEquals(Integer.valueOf(5), commandsMap.<Integer>query("length", "value"));
+        assertEquals(1, host.calls);
+    }
+
+    @Test
+    public void queryOfAMissingKeyReturnsNull() {
+        CommandsPolicy misses = CommandsPolicy.count();
+        commandsMap.setMissHandler(misses);
+
+        assertNull(commandsMap.query("missing", "value"));
+        assertEquals(1, misses.getCount());
+    }
+
+    @Test
+    public void queryAfterClearReturnsNull() {
+        CommandsPolicy cleared = CommandsPolicy.count();
+        commandsMap.setMissHandler(cleared);
+        commandsMap.clear();
+
+        assertNull(commandsMap.query("length", "value"));
+        assertEquals(0, host.calls);
+        assertEquals(1, cleared.getCount());
+    }
+
+    @Test
+    public void executeWithPassesAllTheParameters() {
+        commandsMap.executeWith("concat", "a", "b", "c");
+        assertEquals("abc", commandsMap.queryWith("concat", "a", "b", "c"));
+        assertEquals(Long.valueOf(6), commandsMap.<Long>queryWith("sum", 1, 2, 3L));
+        assertEquals(3, host.calls);
+    }
+
+    @Test
+    public void executeOfPrimitiveParametersAfterTheSecondOneFailsClearly() {
+        for (int i = 0; i < 4; i++) {
+            try {
+                if (i == 0) {
+                    commandsMap.execute("sum", 1, 2);
+                } else if (i == 1) {
+                    commandsMap.query("sum", 1, 2);
+                } else if (i == 2) {
+                    commandsMap.executeAll("sum", new Object[]{1});
+                } else {
+                    commandsMap.execute("sum", 1);
+                }
+                fail("the missing parameter was not reported");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("executeWith()"));
+            }
+        }
+        assertEquals(0, host.calls);
+    }
+
+    @Test
+    public void executePassesTheMissingObjectParametersAsNull() {
+        assertEquals("abnull", commandsMap.query("concat", "a", "b"));
+    }
+
+    @Test
+    public void executeAllInvokesTheCommandForEveryParameter() {
+        commandsMap.executeAll("length", new Object[]{"a", "bb", "ccc"});
+        commandsMap.executeAll(new Object[]{"none", "length", "length", "none"},
+                new Object[]{null, "a", "b", null});
+        assertEquals(7, host.calls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeAllRejectsKeysAndParametersOfDifferentLengths() {
+        commandsMap.executeAll(new Object[]{"none", "none"}, new Object[]{null});
+    }
+
+    @Test
+    public void errorsAreThrownToTheCaller() {
+        try {
+            commandsMap.execute("fail", 1);
+            fail("the error was not thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("failed 1", e.getMessage());
+        }
+        assertEquals(1, host.calls);
+    }
+
+    @Test
+    public void asyncCommandsAreExecutedOnTheExecutor() {
+        final List<Runnable> submitted = new ArrayList<>();
+        commandsMap.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submitted.add(command);
+            }
+        });
+
+        commandsMap.execute("async", "event");
+        assertEquals(0, host.calls);
+        assertEquals(1, submitted.size());
+
+        submitted.get(0).run();
+        assertEquals(1, host.calls);
+    }
+
+    @Test
+    public void errorsOfExecuteAsyncAreThrownByTheFuture() throws Exception {
+        Future<?> future = commandsMap.executeAsync("fail", 1);
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("the error was not thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, host.calls);
+    }
+
+    @Test
+    public void queryAsyncReturnsTheValueThroughAFuture() throws Exception {
+        Future<Integer> length = commandsMap.queryAsync("length", "value");
+        assertEquals(Integer.valueOf(5), length.get(10, TimeUnit.SECONDS));
+    }
+}
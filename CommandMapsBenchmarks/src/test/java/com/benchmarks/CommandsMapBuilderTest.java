@@ -0,0 +1,123 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.mapper.BiCommand;
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * builds a {@link CommandsMap} at runtime through {@link CommandsMap#builder()}, from commands
+ * and from the annotated methods of classes that has no generated {@link CommandsMap}
+ */
+public class CommandsMapBuilderTest {
+
+    /**
+     * a class with annotated methods, that is not annotated with
+     * {@link com.annotations.CommandsMapFactory}
+     */
+    public static class Plugin {
+
+        final StringBuilder log = new StringBuilder();
+
+        @Command(keyString = "one")
+        void one(Object parameter) {
+            log.append("one:").append(parameter).append(';');
+        }
+
+        @Command(7)
+        void two(Object parameterOne, Object parameterTwo) {
+            log.append("two:").append(parameterOne).append(parameterTwo).append(';');
+        }
+
+        @Command(keyString = "none")
+        static void none() {
+        }
+    }
+
+    /**
+     * a {@link Plugin} that overrides one of it's methods
+     */
+    public static class SubPlugin extends Plugin {
+
+        @Override
+        void one(Object parameter) {
+            log.append("subOne;");
+        }
+    }
+
+    /**
+     * a class with a key that only a generated {@link CommandsMap} supports
+     */
+    public static class PrefixPlugin {
+
+        @Command(keyPrefix = "order.")
+        void order(Object parameter) {
+        }
+    }
+
+    @Test
+    public void executesTheAddedCommands() {
+        final StringBuilder log = new StringBuilder();
+        CommandsMap commandsMap = CommandsMap.builder()
+                .add("one", new com.mapper.Command() {
+                    @Override
+                    public void accept(Object parameter) {
+                        log.append("one:").append(parameter).append(';');
+                    }
+                })
+                .add("two", new BiCommand() {
+                    @Override
+                    public void accept(Object parameterOne, Object parameterTwo) {
+                        log.append("two:").append(parameterOne).append(parameterTwo).append(';');
+                    }
+                })
+                .build();
+
+        commandsMap.execute("one", "a");
+        commandsMap.execute("two", "b", "c");
+        commandsMap.executeAll("one", new Object[]{"d", "e"});
+
+        assertEquals("one:a;two:bc;one:d;one:e;", log.toString());
+    }
+
+    @Test
+    public void executesTheAnnotatedMethodsThroughReflections() {
+        Plugin plugin = new Plugin();
+        CommandsMap commandsMap = CommandsMap.builder().addCommands(plugin).build();
+
+        commandsMap.execute("one", "a");
+        commandsMap.execute(7, "b", "c");
+        commandsMap.execute("none");
+
+        assertEquals("one:a;two:bc;", plugin.log.toString());
+    }
+
+    @Test
+    public void invokesTheOverridingMethods() {
+        SubPlugin plugin = new SubPlugin();
+        CommandsMap.builder().addCommands(plugin).build().execute("one", "a");
+
+        assertEquals("subOne;", plugin.log.toString());
+    }
+
+    @Test
+    public void missesTheKeysThatWereNotAdded() {
+        CommandsMap commandsMap = CommandsMap.builder().addCommands(new Plugin()).build();
+        CommandsPolicy misses = CommandsPolicy.count();
+        commandsMap.setMissHandler(misses);
+
+        commandsMap.execute("two", "a");
+        commandsMap.execute(7L, "a", "b");
+
+        assertEquals(2, misses.getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheKeysOfGeneratedCommandsOnly() {
+        CommandsMap.builder().addCommands(new PrefixPlugin());
+    }
+}
@@ -0,0 +1,93 @@
+package com.benchmarks;
+
+import com.mapper.CommandStats;
+import com.mapper.CommandsMap;
+import com.mapper.CommandsMetrics;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * counts the invocations, errors and misses of the {@link CallsFixture} through
+ * {@link CommandsMap#enableMetrics()}
+ */
+public class CommandsMetricsTest {
+
+    private CommandsMap commandsMap;
+    private CommandsMetrics metrics;
+
+    @Before
+    public void setup() {
+        commandsMap = CommandsMap.of(new CallsFixture());
+        commandsMap.setMissHandler(CommandsPolicy.ignore());
+        metrics = commandsMap.enableMetrics();
+    }
+
+    @Test
+    public void enableMetricsReturnsTheSameMetrics() {
+        assertSame(metrics, commandsMap.enableMetrics());
+    }
+
+    @Test
+    public void countsTheInvocationsOfEveryExecutedCommand() {
+        commandsMap.execute("none");
+        commandsMap.query("length", "value");
+        commandsMap.executeAll("length", new Object[]{"a", "b", "c"});
+        commandsMap.executeWith("concat", "a", "b", "c");
+
+        List<CommandStats> snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.size());
+        assertEquals("none", snapshot.get(0).getKey());
+        assertEquals(1, snapshot.get(0).getCalls());
+        assertEquals("concat", snapshot.get(1).getKey());
+        assertEquals(1, snapshot.get(1).getCalls());
+        assertEquals("length", snapshot.get(2).getKey());
+        assertEquals(4, snapshot.get(2).getCalls());
+        assertTrue(snapshot.get(2).getMaxNanos() >= snapshot.get(2).getPercentileNanos(50));
+    }
+
+    @Test
+    public void countsTheErrorsAndMisses() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                commandsMap.execute("fail", i);
+            } catch (IllegalStateException e) {
+                // counted by the metrics
+            }
+        }
+        commandsMap.execute("missing");
+        commandsMap.execute("missing", 1);
+
+        CommandStats stats = metrics.snapshot().get(0);
+        assertEquals("fail", stats.getKey());
+        assertEquals(3, stats.getCalls());
+        assertEquals(3, stats.getErrors());
+        assertEquals(0, stats.getMeanNanos());
+        assertEquals(2, metrics.getMisses());
+    }
+
+    @Test
+    public void emptyBatchesAreNotMeasured() {
+        commandsMap.executeAll("length", new Object[0]);
+        commandsMap.executeAll(new Object[0], new Object[0]);
+        metrics.onExecuted(commandsMap, 0, 0, 100);
+
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    public void removingTheListenerStopsMeasuring() {
+        commandsMap.execute("none");
+        commandsMap.setListener(null);
+        commandsMap.execute("none");
+
+        assertEquals(1, metrics.snapshot().get(0).getCalls());
+    }
+}
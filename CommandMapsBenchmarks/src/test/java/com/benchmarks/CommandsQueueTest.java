@@ -0,0 +1,171 @@
+package com.benchmarks;
+
+import com.mapper.Command;
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+import com.mapper.CommandsQueue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * enqueues events to a {@link CommandsQueue} in front of a generated {@link CommandsMap}, and
+ * in front of a {@link CommandsMap} whose command blocks the drain thread, to fill the queue
+ */
+public class CommandsQueueTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    /**
+     * a {@link CommandsMap} whose command records it's events, and waits for the latch before
+     * it's first event returns, so the events enqueued meanwhile stay in the queue
+     */
+    private static CommandsMap blockingCommandsMap(final List<Object> events, final CountDownLatch started,
+                                                   final CountDownLatch latch) {
+        return CommandsMap.builder()
+                .add("event", new Command() {
+                    @Override
+                    public void accept(Object event) {
+                        events.add(event);
+                        started.countDown();
+                        try {
+                            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                })
+                .build();
+    }
+
+    @Test
+    public void executesTheEventsInTheirOrder() throws InterruptedException {
+        final List<Object> events = Collections.synchronizedList(new ArrayList<Object>());
+        CommandsMap commandsMap = CommandsMap.builder()
+                .add("event", new Command() {
+                    @Override
+                    public void accept(Object event) {
+                        events.add(event);
+                    }
+                })
+                .build();
+        CommandsQueue queue = CommandsQueue.of(commandsMap, 16, CommandsQueue.Overflow.BLOCK);
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.execute("event", i));
+            expected.add(i);
+        }
+        queue.close();
+
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(expected, events);
+        assertEquals(0, queue.getOverflowCount());
+    }
+
+    @Test
+    public void executesTheGeneratedCommands() throws InterruptedException {
+        BenchmarkHost host = KeyType.INT.host(3);
+        CommandsQueue queue = CommandsQueue.of(CommandsMap.of(host), 4, CommandsQueue.Overflow.BLOCK);
+        queue.execute(0, null);
+        queue.execute(1, null, null);
+        queue.execute(2, null);
+        queue.close();
+
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(3, host.counter());
+    }
+
+    @Test
+    public void roundsTheCapacityUpToAPowerOfTwo() {
+        CommandsMap commandsMap = CommandsMap.builder().build();
+        CommandsQueue one = CommandsQueue.of(commandsMap, 1, CommandsQueue.Overflow.REJECT);
+        CommandsQueue hundred = CommandsQueue.of(commandsMap, 100, CommandsQueue.Overflow.REJECT);
+        one.close();
+        hundred.close();
+
+        assertEquals(2, one.getCapacity());
+        assertEquals(128, hundred.getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyCapacity() {
+        CommandsQueue.of(CommandsMap.builder().build(), 0, CommandsQueue.Overflow.BLOCK);
+    }
+
+    @Test
+    public void rejectPolicyRejectsTheEventsOfAFullQueue() throws InterruptedException {
+        List<Object> events = Collections.synchronizedList(new ArrayList<Object>());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CommandsQueue queue = CommandsQueue.of(blockingCommandsMap(events, started, latch), 2,
+                CommandsQueue.Overflow.REJECT);
+
+        assertTrue(queue.execute("event", 0));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(queue.execute("event", 1));
+        assertTrue(queue.execute("event", 2));
+        assertFalse(queue.execute("event", 3));
+        latch.countDown();
+        queue.close();
+
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, queue.getOverflowCount());
+        assertEquals(Arrays.<Object>asList(0, 1, 2), events);
+    }
+
+    @Test
+    public void dropOldestPolicyDropsTheOldestEventOfAFullQueue() throws InterruptedException {
+        List<Object> events = Collections.synchronizedList(new ArrayList<Object>());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CommandsQueue queue = CommandsQueue.of(blockingCommandsMap(events, started, latch), 2,
+                CommandsQueue.Overflow.DROP_OLDEST);
+
+        assertTrue(queue.execute("event", 0));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(queue.execute("event", 1));
+        assertTrue(queue.execute("event", 2));
+        assertTrue(queue.execute("event", 3));
+        latch.countDown();
+        queue.close();
+
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, queue.getOverflowCount());
+        assertEquals(Arrays.<Object>asList(0, 2, 3), events);
+    }
+
+    @Test
+    public void closedQueueRejectsTheNewEvents() throws InterruptedException {
+        CommandsQueue queue = CommandsQueue.of(CommandsMap.builder().build(), 4,
+                CommandsQueue.Overflow.BLOCK);
+        queue.close();
+
+        assertFalse(queue.execute("event"));
+        assertEquals(1, queue.getOverflowCount());
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void errorsArePassedToTheErrorHandler() throws InterruptedException {
+        CommandsMap commandsMap = CommandsMap.of(new CallsFixture());
+        CommandsPolicy errors = CommandsPolicy.count();
+        commandsMap.setErrorHandler(errors);
+        CommandsQueue queue = CommandsQueue.of(commandsMap, 4, CommandsQueue.Overflow.BLOCK);
+        queue.execute("fail", 1);
+        queue.execute("fail", 2);
+        queue.close();
+
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(2, errors.getCount());
+    }
+}
@@ -0,0 +1,81 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsRegistry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * broadcasts the keys of the generated hosts to the {@link CommandsMap} instances registered in
+ * a {@link CommandsRegistry}
+ */
+public class CommandsRegistryTest {
+
+    @Test
+    public void broadcastExecutesTheKeyInEveryRegisteredInstance() {
+        BenchmarkHost host = KeyType.STRING.host(50);
+        BenchmarkHost otherHost = KeyType.STRING.host(500);
+        BenchmarkHost intHost = KeyType.INT.host(50);
+        CommandsRegistry registry = new CommandsRegistry();
+        registry.register(CommandsMap.of(host));
+        registry.register(CommandsMap.of(otherHost));
+        registry.register(CommandsMap.of(intHost));
+
+        assertEquals(2, registry.broadcast("key-0", null));
+        assertEquals(1, registry.broadcast("key-100", null));
+        assertEquals(1, registry.broadcast(3, null, null));
+        assertEquals(0, registry.broadcast("missing", null));
+        assertEquals(0, registry.broadcast(null, null));
+
+        assertEquals(1, host.counter());
+        assertEquals(2, otherHost.counter());
+        assertEquals(1, intHost.counter());
+    }
+
+    @Test
+    public void registeringTwiceBroadcastsOnce() {
+        BenchmarkHost host = KeyType.INT.host(3);
+        CommandsMap commandsMap = CommandsMap.of(host);
+        CommandsRegistry registry = new CommandsRegistry();
+        registry.register(commandsMap);
+        registry.register(commandsMap);
+
+        assertEquals(1, registry.subscribersCount(0));
+        assertEquals(1, registry.broadcast(0, null));
+        assertEquals(1, host.counter());
+    }
+
+    @Test
+    public void unregisteredInstancesReceiveNoBroadcasts() {
+        BenchmarkHost host = KeyType.INT.host(3);
+        BenchmarkHost otherHost = KeyType.INT.host(3);
+        CommandsMap commandsMap = CommandsMap.of(host);
+        CommandsRegistry registry = new CommandsRegistry();
+        registry.register(commandsMap);
+        registry.register(CommandsMap.of(otherHost));
+        registry.unregister(commandsMap);
+        registry.unregister(commandsMap);
+
+        assertEquals(1, registry.broadcast(0, null));
+        assertEquals(0, host.counter());
+        assertEquals(1, otherHost.counter());
+    }
+
+    @Test
+    public void patternsReceiveTheKeysThatHasNoExactCommand() {
+        RouteHost host = new RouteHost();
+        CommandsRegistry registry = new CommandsRegistry();
+        registry.register(CommandsMap.of(host));
+
+        assertEquals(1, registry.broadcast("order.paid", null));
+        assertEquals(1, registry.broadcast("order.updated", null));
+        assertEquals(1, registry.broadcast(250, null));
+        assertEquals(0, registry.broadcast(950, null));
+        assertEquals(1, registry.subscribersCount("user.created"));
+        assertEquals(0, registry.subscribersCount("admin."));
+
+        assertEquals(3 + 1 + 2, host.counter());
+    }
+}
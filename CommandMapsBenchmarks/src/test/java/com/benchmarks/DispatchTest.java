@@ -0,0 +1,195 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * executes every command of the generated {@code com.benchmarks.hosts} classes by it's key, for
+ * every key type and for sizes that are looked up through a {@code switch}, a binary search and
+ * a perfect hash, and the keys that are not mapped or executed after {@link CommandsMap#clear()}
+ */
+public class DispatchTest {
+
+    private static final int[] SIZES = {3, 50, 500, 5000};
+
+    /**
+     * execute every command of every host once, with the parameters it takes
+     */
+    private static void executeAll(KeyType keyType, int size, CommandsMap commandsMap) {
+        for (int index = 0; index < size; index++) {
+            if (index % 2 == 0) {
+                commandsMap.execute(keyType.key(index), index);
+            } else {
+                commandsMap.execute(keyType.key(index), index, index);
+            }
+        }
+    }
+
+    @Test
+    public void executesEveryKeyOfEveryKeyType() {
+        for (KeyType keyType : KeyType.values()) {
+            for (int size : SIZES) {
+                BenchmarkHost host = keyType.host(size);
+                CommandsMap commandsMap = CommandsMap.of(host);
+                CommandsPolicy misses = CommandsPolicy.count();
+                commandsMap.setMissHandler(misses);
+
+                executeAll(keyType, size, commandsMap);
+
+                assertEquals(keyType + " " + size, size, host.counter());
+                assertEquals(keyType + " " + size, 0, misses.getCount());
+            }
+        }
+    }
+
+    @Test
+    public void reportsKeysThatAreNotMapped() {
+        for (KeyType keyType : KeyType.values()) {
+            for (int size : SIZES) {
+                BenchmarkHost host = keyType.host(size);
+                CommandsMap commandsMap = CommandsMap.of(host);
+                CommandsPolicy misses = CommandsPolicy.count();
+                commandsMap.setMissHandler(misses);
+
+                commandsMap.execute(keyType.key(size), null);
+                commandsMap.execute(keyType.key(-1), null);
+                commandsMap.execute(null, null);
+
+                assertEquals(keyType + " " + size, 0, host.counter());
+                assertEquals(keyType + " " + size, 3, misses.getCount());
+            }
+        }
+    }
+
+    @Test
+    public void stringKeysOfPerfectHashAreNotMatchedByEqualHashCodes() {
+        BenchmarkHost host = KeyType.STRING.host(5000);
+        CommandsMap commandsMap = CommandsMap.of(host);
+        CommandsPolicy misses = CommandsPolicy.count();
+        commandsMap.setMissHandler(misses);
+
+        // "key,O" has the same hash code as "key-0", as ',' * 31 + 'O' == '-' * 31 + '0'
+        assertEquals("key-0".hashCode(), "key,O".hashCode());
+        commandsMap.execute("key,O", null);
+        commandsMap.execute(new StringBuilder("key-0"), null);
+
+        assertEquals(0, host.counter());
+        assertEquals(2, misses.getCount());
+    }
+
+    @Test
+    public void executesPrimitiveKeysWithoutBoxing() {
+        BenchmarkHost intHost = KeyType.INT.host(500);
+        CommandsMap intCommandsMap = CommandsMap.of(intHost);
+        intCommandsMap.executeInt(0, null);
+        intCommandsMap.executeInt(1, null, null);
+
+        BenchmarkHost longHost = KeyType.LONG.host(500);
+        CommandsMap longCommandsMap = CommandsMap.of(longHost);
+        longCommandsMap.executeLong(498L, null);
+        longCommandsMap.executeLong(499L, null, null);
+
+        assertEquals(2, intHost.counter());
+        assertEquals(2, longHost.counter());
+    }
+
+    @Test
+    public void numericKeysOfOtherTypesAreNotMatched() {
+        BenchmarkHost host = KeyType.INT.host(50);
+        CommandsMap commandsMap = CommandsMap.of(host);
+        CommandsPolicy misses = CommandsPolicy.count();
+        commandsMap.setMissHandler(misses);
+
+        commandsMap.execute(2L, null);
+        commandsMap.execute((short) 2, null);
+
+        assertEquals(0, host.counter());
+        assertEquals(2, misses.getCount());
+    }
+
+    @Test
+    public void floatingKeysAreComparedLikeTheirEquals() {
+        DoubleKeysFixture doubleHost = new DoubleKeysFixture();
+        CommandsMap doubleCommandsMap = CommandsMap.of(doubleHost);
+        doubleCommandsMap.execute(-0.0);
+        doubleCommandsMap.execute(0.0);
+        doubleCommandsMap.execute(Double.NaN);
+
+        FloatKeysFixture floatHost = new FloatKeysFixture();
+        CommandsMap floatCommandsMap = CommandsMap.of(floatHost);
+        floatCommandsMap.execute(-0.0F);
+        floatCommandsMap.execute(0.0F);
+        floatCommandsMap.execute(Float.NaN);
+
+        assertEquals("minusZero;zero;notANumber;", doubleHost.log.toString());
+        assertEquals("minusZero;zero;notANumber;", floatHost.log.toString());
+    }
+
+    @Test
+    public void longKeysAreSortedByTheirExactValues() {
+        LongKeysFixture host = new LongKeysFixture();
+        CommandsMap commandsMap = CommandsMap.of(host);
+        CommandsPolicy misses = CommandsPolicy.count();
+        commandsMap.setMissHandler(misses);
+
+        commandsMap.executeLong(9007199254740992L);
+        commandsMap.executeLong(9007199254740993L);
+        commandsMap.execute(9007199254740994L);
+        commandsMap.executeLong(3L);
+        commandsMap.executeLong(9007199254740995L);
+
+        assertEquals("twoPow53;twoPow53PlusOne;twoPow53PlusTwo;three;", host.log.toString());
+        assertEquals(1, misses.getCount());
+    }
+
+    @Test
+    public void executesNothingAfterClear() {
+        BenchmarkHost host = KeyType.STRING.host(50);
+        CommandsMap commandsMap = CommandsMap.of(host);
+        CommandsPolicy cleared = CommandsPolicy.count();
+        commandsMap.setMissHandler(cleared);
+
+        commandsMap.clear();
+        commandsMap.execute(KeyType.STRING.key(0), null);
+        commandsMap.execute(KeyType.STRING.key(1), null, null);
+        commandsMap.executeAll(KeyType.STRING.key(0), new Object[]{1, 2, 3});
+
+        assertEquals(0, host.counter());
+        assertEquals(5, cleared.getCount());
+    }
+
+    @Test
+    public void executesAgainAfterSettingTheHost() {
+        BenchmarkHost host = KeyType.INT.host(3);
+        CommandsMap commandsMap = CommandsMap.of(host);
+        commandsMap.clear();
+
+        BenchmarkHost otherHost = KeyType.INT.host(3);
+        commandsMap.setCommandsMapFactory(otherHost);
+        commandsMap.execute(0, null);
+
+        assertEquals(0, host.counter());
+        assertEquals(1, otherHost.counter());
+    }
+
+    @Test
+    public void reportsTheKeysOfTheCommands() {
+        CommandsMap commandsMap = CommandsMap.of(KeyType.DOUBLE.host(50));
+        for (int index = 0; index < 50; index++) {
+            assertEquals(KeyType.DOUBLE.key(index), commandsMap.getCommandKey(index));
+        }
+    }
+
+    @Test
+    public void createsTheGeneratedClassThroughTheIndex() {
+        CommandsMap.addIndex(new CommandsMaps$$Index());
+        BenchmarkHost host = KeyType.FLOAT.host(500);
+
+        assertSame(host.newCommandsMap().getClass(), CommandsMap.of(host).getClass());
+    }
+}
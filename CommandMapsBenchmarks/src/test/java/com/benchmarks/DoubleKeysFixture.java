@@ -0,0 +1,50 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host with {@code double} keys that are looked up through a binary search, where
+ * {@code -0.0} and {@code 0.0} are different keys, that logs the methods it invokes, for the
+ * {@link DispatchTest}
+ */
+@CommandsMapFactory
+public class DoubleKeysFixture {
+
+    final StringBuilder log = new StringBuilder();
+
+    @Command(keyDouble = -2.0)
+    void minusTwo() {
+        log.append("minusTwo;");
+    }
+
+    @Command(keyDouble = -1.0)
+    void minusOne() {
+        log.append("minusOne;");
+    }
+
+    @Command(keyDouble = -0.0)
+    void minusZero() {
+        log.append("minusZero;");
+    }
+
+    @Command(keyDouble = 0.0)
+    void zero() {
+        log.append("zero;");
+    }
+
+    @Command(keyDouble = 1.0)
+    void one() {
+        log.append("one;");
+    }
+
+    @Command(keyDouble = 2.0)
+    void two() {
+        log.append("two;");
+    }
+
+    @Command(keyDouble = Double.NaN)
+    void notANumber() {
+        log.append("notANumber;");
+    }
+}
@@ -0,0 +1,31 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * executes the {@code enum} and {@code Class} keys of the {@link EventHost}
+ */
+public class EventKeysTest {
+
+    @Test
+    public void executesEnumClassAndStringKeysSeparately() {
+        EventHost eventHost = new EventHost();
+        CommandsMap eventCommandsMap = CommandsMap.of(eventHost);
+        CommandsPolicy eventMisses = CommandsPolicy.count();
+        eventCommandsMap.setMissHandler(eventMisses);
+
+        eventCommandsMap.execute(EventHost.EventType.CLICKED, null);
+        eventCommandsMap.execute(EventHost.Clicked.class, null);
+        eventCommandsMap.execute("CLICKED", null);
+        eventCommandsMap.execute(EventHost.Clicked.class.getSuperclass(), null);
+        eventCommandsMap.execute(Thread.State.NEW, null);
+
+        assertEquals(9, eventHost.counter());
+        assertEquals(2, eventMisses.getCount());
+    }
+}
@@ -0,0 +1,50 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host with {@code float} keys that are looked up through a binary search, where
+ * {@code -0.0} and {@code 0.0} are different keys, that logs the methods it invokes, for the
+ * {@link DispatchTest}
+ */
+@CommandsMapFactory
+public class FloatKeysFixture {
+
+    final StringBuilder log = new StringBuilder();
+
+    @Command(keyFloat = -2.0F)
+    void minusTwo() {
+        log.append("minusTwo;");
+    }
+
+    @Command(keyFloat = -1.0F)
+    void minusOne() {
+        log.append("minusOne;");
+    }
+
+    @Command(keyFloat = -0.0F)
+    void minusZero() {
+        log.append("minusZero;");
+    }
+
+    @Command(keyFloat = 0.0F)
+    void zero() {
+        log.append("zero;");
+    }
+
+    @Command(keyFloat = 1.0F)
+    void one() {
+        log.append("one;");
+    }
+
+    @Command(keyFloat = 2.0F)
+    void two() {
+        log.append("two;");
+    }
+
+    @Command(keyFloat = Float.NaN)
+    void notANumber() {
+        log.append("notANumber;");
+    }
+}
@@ -0,0 +1,75 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * executes the prefixes and the ranges of keys of the {@link RouteHost}
+ */
+public class KeyPatternsTest {
+
+    private RouteHost host;
+    private CommandsMap commandsMap;
+    private CommandsPolicy misses;
+
+    @Before
+    public void setup() {
+        host = new RouteHost();
+        commandsMap = CommandsMap.of(host);
+        misses = CommandsPolicy.count();
+        commandsMap.setMissHandler(misses);
+    }
+
+    private int counterAfter(Object key) {
+        int counter = host.counter();
+        commandsMap.execute(key, null);
+        return host.counter() - counter;
+    }
+
+    @Test
+    public void executesTheLongestPrefixOfAKey() {
+        assertEquals(1, counterAfter("order.updated"));
+        assertEquals(2, counterAfter("order.refund.requested"));
+        assertEquals(1, counterAfter("order."));
+        assertEquals(8, counterAfter("auth.login"));
+        assertEquals(0, misses.getCount());
+    }
+
+    @Test
+    public void executesAnExactKeyInsteadOfItsPrefix() {
+        assertEquals(3, counterAfter("order.paid"));
+        assertEquals(4, counterAfter("order.shipped"));
+        assertEquals(1, counterAfter("order.paid.late"));
+    }
+
+    @Test
+    public void missesTheKeysThatMatchNoPrefix() {
+        assertEquals(0, counterAfter("order"));
+        assertEquals(0, counterAfter("orders."));
+        assertEquals(0, counterAfter(""));
+        assertEquals(3, misses.getCount());
+    }
+
+    @Test
+    public void executesTheRangeOfAKeyInclusive() {
+        assertEquals(1, counterAfter(100));
+        assertEquals(1, counterAfter(199));
+        assertEquals(2, counterAfter(200));
+        assertEquals(8, counterAfter(899));
+        commandsMap.executeInt(450, null);
+        assertEquals(1 + 1 + 2 + 8 + 4, host.counter());
+    }
+
+    @Test
+    public void missesTheKeysOutOfTheRanges() {
+        assertEquals(0, counterAfter(99));
+        assertEquals(0, counterAfter(900));
+        assertEquals(0, counterAfter(150L));
+        assertEquals(3, misses.getCount());
+    }
+}
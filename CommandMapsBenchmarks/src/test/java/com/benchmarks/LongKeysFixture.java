@@ -0,0 +1,44 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+
+/**
+ * a host with {@code long} keys above 2^53, which a {@code double} can not tell apart, declared
+ * out of their order, that logs the methods it invokes, for the {@link DispatchTest}
+ */
+@CommandsMapFactory
+public class LongKeysFixture {
+
+    final StringBuilder log = new StringBuilder();
+
+    @Command(keyLong = 1L)
+    void one() {
+        log.append("one;");
+    }
+
+    @Command(keyLong = 2L)
+    void two() {
+        log.append("two;");
+    }
+
+    @Command(keyLong = 9007199254740993L)
+    void twoPow53PlusOne() {
+        log.append("twoPow53PlusOne;");
+    }
+
+    @Command(keyLong = 9007199254740992L)
+    void twoPow53() {
+        log.append("twoPow53;");
+    }
+
+    @Command(keyLong = 9007199254740994L)
+    void twoPow53PlusTwo() {
+        log.append("twoPow53PlusTwo;");
+    }
+
+    @Command(keyLong = 3L)
+    void three() {
+        log.append("three;");
+    }
+}
@@ -0,0 +1,61 @@
+package com.benchmarks;
+
+import com.annotations.Command;
+import com.annotations.CommandsMapFactory;
+import com.annotations.Pipeline;
+
+/**
+ * a host with a key for every {@link Pipeline}, that logs the methods it invokes, for the
+ * {@link PipelineTest}
+ */
+@CommandsMapFactory
+public class PipelineFixture {
+
+    final StringBuilder log = new StringBuilder();
+
+    @Command(keyString = "fanOut")
+    void first(Object event) {
+        log.append("first:").append(event).append(';');
+    }
+
+    @Command(keyString = "fanOut", order = 2)
+    void third(Object event) {
+        log.append("third;");
+    }
+
+    @Command(keyString = "fanOut", order = 1)
+    void second(Object event) {
+        log.append("second;");
+    }
+
+    @Command(keyString = "firstMatch", pipeline = Pipeline.FIRST_MATCH)
+    boolean small(Integer value) {
+        log.append("small?;");
+        return value < 10;
+    }
+
+    @Command(keyString = "firstMatch", pipeline = Pipeline.FIRST_MATCH, order = 1)
+    boolean medium(Integer value) {
+        log.append("medium?;");
+        return value < 100;
+    }
+
+    @Command(keyString = "firstMatch", pipeline = Pipeline.FIRST_MATCH, order = 2)
+    String large(Integer value) {
+        log.append("large;");
+        return "large";
+    }
+
+    @Command(keyString = "fallback", pipeline = Pipeline.FALLBACK)
+    void primary(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("no value");
+        }
+        log.append("primary;");
+    }
+
+    @Command(keyString = "fallback", pipeline = Pipeline.FALLBACK, order = 1)
+    void secondary(String value) {
+        log.append("secondary;");
+    }
+}
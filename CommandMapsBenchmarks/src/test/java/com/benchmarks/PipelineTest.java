@@ -0,0 +1,79 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * executes and queries the keys of the {@link PipelineFixture}, which has several methods
+ * for every key, and the {@link PipelineHost}
+ */
+public class PipelineTest {
+
+    private PipelineFixture host;
+    private CommandsMap commandsMap;
+
+    @Before
+    public void setup() {
+        host = new PipelineFixture();
+        commandsMap = CommandsMap.of(host);
+    }
+
+    @Test
+    public void fanOutInvokesAllTheMethodsInTheirOrder() {
+        commandsMap.execute("fanOut", "a");
+        assertEquals("first:a;second;third;", host.log.toString());
+    }
+
+    @Test
+    public void firstMatchStopsAtTheFirstMatchingMethod() {
+        commandsMap.execute("firstMatch", 5);
+        commandsMap.execute("firstMatch", 50);
+        commandsMap.execute("firstMatch", 500);
+        assertEquals("small?;small?;medium?;small?;medium?;large;", host.log.toString());
+    }
+
+    @Test
+    public void firstMatchReturnsTrueOrTheValueOfTheLastMethod() {
+        assertEquals(Boolean.TRUE, commandsMap.query("firstMatch", 5));
+        assertEquals("large", commandsMap.query("firstMatch", 500));
+    }
+
+    @Test
+    public void fallbackInvokesTheNextMethodWhenAMethodThrows() {
+        commandsMap.execute("fallback", "value");
+        commandsMap.execute("fallback", null);
+        assertEquals("primary;secondary;", host.log.toString());
+    }
+
+    @Test
+    public void queryOfVoidMethodsReturnsNull() {
+        assertNull(commandsMap.query("fanOut", "a"));
+        assertEquals("first:a;second;third;", host.log.toString());
+    }
+
+    @Test
+    public void executeAllInvokesThePipelineForEveryParameter() {
+        commandsMap.executeAll("fanOut", new Object[]{"a", "b"});
+        assertEquals("first:a;second;third;first:b;second;third;", host.log.toString());
+    }
+
+    @Test
+    public void pipelineOfOneKeyInvokesAsManyMethodsAsTheirKeys() {
+        PipelineHost pipelineHost = new PipelineHost();
+        CommandsMap pipelineCommandsMap = CommandsMap.of(pipelineHost);
+
+        pipelineCommandsMap.execute("event", null);
+        int pipelineCounter = pipelineHost.counter();
+        pipelineCommandsMap.execute("log", null);
+        pipelineCommandsMap.execute("track", null);
+        pipelineCommandsMap.execute("render", null);
+
+        assertEquals(6, pipelineCounter);
+        assertEquals(12, pipelineHost.counter());
+    }
+}
@@ -0,0 +1,189 @@
+package com.benchmarks;
+
+import com.mapper.CacheStats;
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * executes the {@link com.annotations.Command#cacheable()} commands of the {@link CacheFixture},
+ * and the {@link LookupHost}
+ */
+public class ResultsCacheTest {
+
+    private CacheFixture host;
+    private CommandsMap commandsMap;
+
+    @Before
+    public void setup() {
+        host = new CacheFixture();
+        commandsMap = CommandsMap.of(host);
+    }
+
+    @Test
+    public void equalParametersAreInvokedOnce() {
+        assertEquals(Integer.valueOf(9), commandsMap.<Integer>query("square", 3));
+        assertEquals(Integer.valueOf(9), commandsMap.<Integer>query("square", 3));
+        assertEquals(9, CacheFixture$$Commands.square(commandsMap, 3));
+        commandsMap.execute("square", 3);
+        commandsMap.executeAll("square", new Object[]{3, 3});
+        assertEquals(1, host.calls);
+
+        assertEquals(16, CacheFixture$$Commands.square(commandsMap, 4));
+        assertEquals(2, host.calls);
+    }
+
+    @Test
+    public void bothParametersAreTheCacheKey() {
+        assertEquals("ab", commandsMap.query("join", "a", "b"));
+        assertEquals("ab", commandsMap.query("join", "a", "b"));
+        assertEquals("ba", commandsMap.query("join", "b", "a"));
+        assertEquals("anull", commandsMap.query("join", "a", null));
+        assertEquals("nullnull", commandsMap.query("join", null, null));
+        assertEquals(4, host.calls);
+    }
+
+    @Test
+    public void nullValuesAreCached() {
+        assertNull(commandsMap.query("nothing"));
+        assertNull(commandsMap.query("nothing"));
+        assertEquals(1, host.calls);
+    }
+
+    @Test
+    public void aFullCacheEvictsTheValuesThatWereNotReadRecently() {
+        for (int value = 0; value < 4; value++) {
+            commandsMap.query("square", value);
+        }
+        commandsMap.query("square", 0);
+        commandsMap.query("square", 4);
+        assertEquals(5, host.calls);
+
+        commandsMap.query("square", 0);
+        commandsMap.query("square", 4);
+        assertEquals(5, host.calls);
+
+        CacheStats stats = commandsMap.getCacheStats().get(0);
+        assertEquals(4, stats.getSize());
+        assertEquals(4, stats.getCapacity());
+        assertEquals(1, stats.getEvictions());
+    }
+
+    @Test
+    public void expiredValuesAreInvokedAgain() throws InterruptedException {
+        commandsMap.query("expiring", "value");
+        commandsMap.query("expiring", "value");
+        assertEquals(1, host.calls);
+
+        Thread.sleep(50);
+        assertEquals(Integer.valueOf(5), commandsMap.<Integer>query("expiring", "value"));
+        assertEquals(2, host.calls);
+    }
+
+    @Test
+    public void errorsAreNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                commandsMap.query("checked", -1);
+                fail("the error was not thrown");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertEquals(2, host.calls);
+    }
+
+    @Test
+    public void statsCountTheHitsAndMissesOfEveryCache() {
+        commandsMap.query("square", 2);
+        commandsMap.query("square", 2);
+        commandsMap.query("square", 2);
+        commandsMap.query("join", "a", "b");
+
+        List<CacheStats> stats = commandsMap.getCacheStats();
+        assertEquals(2, stats.size());
+        assertEquals("square", stats.get(0).getKey());
+        assertEquals(2, stats.get(0).getHits());
+        assertEquals(1, stats.get(0).getMisses());
+        assertEquals(2.0 / 3, stats.get(0).getHitRate(), 0.001);
+        assertEquals("join", stats.get(1).getKey());
+        assertEquals(0, stats.get(1).getHits());
+    }
+
+    @Test
+    public void clearCacheInvokesTheCommandsAgain() {
+        commandsMap.query("square", 2);
+        commandsMap.clearCache();
+        commandsMap.query("square", 2);
+
+        assertEquals(2, host.calls);
+        assertEquals(1, commandsMap.getCacheStats().get(0).getSize());
+        assertEquals(2, commandsMap.getCacheStats().get(0).getMisses());
+    }
+
+    @Test
+    public void settingAnotherHostDropsTheCachedValues() {
+        commandsMap.query("square", 2);
+        CacheFixture otherHost = new CacheFixture();
+        commandsMap.setCommandsMapFactory(otherHost);
+        commandsMap.query("square", 2);
+
+        assertEquals(1, host.calls);
+        assertEquals(1, otherHost.calls);
+    }
+
+    @Test
+    public void cachedValuesAreNotReturnedAfterClear() {
+        commandsMap.query("square", 2);
+        commandsMap.setMissHandler(CommandsPolicy.ignore());
+        commandsMap.clear();
+
+        assertNull(commandsMap.query("square", 2));
+        assertEquals(0, CacheFixture$$Commands.square(commandsMap, 2));
+    }
+
+    @Test
+    public void valuesReturnedWhileTheCacheIsClearedAreNotCached() {
+        host.commandsMap = commandsMap;
+        assertEquals(Integer.valueOf(1), commandsMap.<Integer>query("clearing", 1));
+        assertEquals(Integer.valueOf(1), commandsMap.<Integer>query("clearing", 1));
+
+        assertEquals(2, host.calls);
+        assertEquals(0, commandsMap.getCacheStats().get(0).getSize());
+    }
+
+    @Test
+    public void aLargeCacheHoldsAllTheValuesAddedToIt() {
+        for (int i = 0; i < 2; i++) {
+            for (int value = 0; value < 100; value++) {
+                assertEquals(Integer.valueOf(-value), commandsMap.<Integer>query("large", value));
+            }
+        }
+        assertEquals(100, host.calls);
+
+        CacheStats stats = commandsMap.getCacheStats().get(0);
+        assertEquals("large", stats.getKey());
+        assertEquals(100, stats.getSize());
+        assertEquals(65536, stats.getCapacity());
+        assertEquals(0, stats.getEvictions());
+    }
+
+    @Test
+    public void cachedLookupReturnsTheValueOfTheLookup() {
+        CommandsMap lookupCommandsMap = CommandsMap.of(new LookupHost());
+        for (int id = 0; id < 10; id++) {
+            String label = lookupCommandsMap.query("lookup", id);
+            assertEquals(label, lookupCommandsMap.<String>query("cachedLookup", id));
+            assertEquals(label,
+                    LookupHost$$Commands.cachedLookup(lookupCommandsMap, id));
+        }
+    }
+}
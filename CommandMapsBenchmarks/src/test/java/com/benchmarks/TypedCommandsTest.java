@@ -0,0 +1,72 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * executes the commands of the {@link TypedHost} through the generated
+ * {@code TypedHost$$Commands}, which passes their parameters and returns their values as is
+ */
+public class TypedCommandsTest {
+
+    private TypedHost host;
+    private CommandsMap commandsMap;
+
+    @Before
+    public void setup() {
+        host = new TypedHost();
+        commandsMap = CommandsMap.of(host);
+    }
+
+    @Test
+    public void typedCommandPassesThePrimitiveParameters() {
+        TypedHost$$Commands.move(commandsMap, 1, 2, 3L);
+        commandsMap.executeWith("move", 10, 20, 30L);
+        assertEquals(66, host.counter());
+    }
+
+    @Test
+    public void typedQueryReturnsThePrimitiveValue() {
+        assertEquals(3, TypedHost$$Commands.distance(commandsMap, 5, 2));
+        assertEquals(Integer.valueOf(3), commandsMap.<Integer>query("distance", 5, 2));
+    }
+
+    @Test
+    public void typedCommandsAreMeasuredWhenAListenerIsSet() {
+        commandsMap.enableMetrics();
+        TypedHost$$Commands.move(commandsMap, 1, 2, 3L);
+
+        assertEquals(3, TypedHost$$Commands.distance(commandsMap, 5, 2));
+        assertEquals(6, host.counter());
+        assertEquals(2, commandsMap.enableMetrics().snapshot().size());
+    }
+
+    @Test
+    public void typedCommandsAfterClearAreNotInvoked() {
+        CommandsPolicy cleared = CommandsPolicy.count();
+        commandsMap.setMissHandler(cleared);
+        commandsMap.clear();
+
+        TypedHost$$Commands.move(commandsMap, 1, 2, 3L);
+
+        assertEquals(0, TypedHost$$Commands.distance(commandsMap, 5, 2));
+        assertEquals(0, host.counter());
+        assertEquals(2, cleared.getCount());
+    }
+
+    @Test
+    public void typedQueryAfterClearReturnsTheDefaultValueWhenAListenerIsSet() {
+        CommandsPolicy cleared = CommandsPolicy.count();
+        commandsMap.setMissHandler(cleared);
+        commandsMap.enableMetrics();
+        commandsMap.clear();
+
+        assertEquals(0, TypedHost$$Commands.distance(commandsMap, 5, 2));
+        assertEquals(1, cleared.getCount());
+    }
+}
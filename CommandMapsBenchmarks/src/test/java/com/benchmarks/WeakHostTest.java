@@ -0,0 +1,79 @@
+package com.benchmarks;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsPolicy;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * executes the commands of host objects held through {@link CommandsMap#ofWeak(Object)}, before
+ * and after they are garbage collected, and reports the leaked host objects through
+ * {@link CommandsMap#leakReport()}
+ */
+public class WeakHostTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @After
+    public void tearDown() {
+        CommandsMap.setLeakTracking(false);
+    }
+
+    /**
+     * @return {@code true} if the referenced object was garbage collected before the timeout
+     */
+    private static boolean collected(WeakReference<?> reference) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (reference.get() != null && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        return reference.get() == null;
+    }
+
+    @Test
+    public void executesTheCommandsOfAWeaklyHeldHost() {
+        BenchmarkHost host = KeyType.INT.host(3);
+        CommandsMap commandsMap = CommandsMap.ofWeak(host);
+        commandsMap.execute(0, null);
+        commandsMap.execute(1, null, null);
+
+        assertEquals(2, host.counter());
+    }
+
+    @Test
+    public void commandsOfACollectedHostAreCleared() throws InterruptedException {
+        BenchmarkHost host = KeyType.INT.host(3);
+        WeakReference<BenchmarkHost> reference = new WeakReference<>(host);
+        CommandsMap commandsMap = CommandsMap.ofWeak(host);
+        CommandsPolicy cleared = CommandsPolicy.count();
+        commandsMap.setMissHandler(cleared);
+        host = null;
+
+        assertTrue(collected(reference));
+        commandsMap.execute(0, null);
+        assertEquals(1, cleared.getCount());
+    }
+
+    @Test
+    public void leakReportCountsTheHostsThatAreNotCleared() {
+        CommandsMap.setLeakTracking(true);
+        CommandsMap leaked = CommandsMap.of(new CallsFixture());
+        CommandsMap cleared = CommandsMap.of(new CallsFixture());
+        CommandsMap.of(new PipelineFixture()).clear();
+        cleared.clear();
+
+        Map<Class<?>, Integer> report = CommandsMap.leakReport();
+        assertEquals(Integer.valueOf(1), report.get(CallsFixture.class));
+        assertFalse(report.containsKey(PipelineFixture.class));
+        leaked.clear();
+    }
+}
@@ -0,0 +1,118 @@
+package com.compiler;
+
+import com.annotations.Command;
+import com.annotations.Pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * the methods annotated with {@link Command} that has the same key, which are generated as one
+ * command, so they are invoked through one lookup of their key, in the order of their
+ * {@link Command#order()}
+ */
+class CommandGroup {
+
+    /**
+     * the maximum {@link Command#cacheSize()}, so a mistyped size fails the build instead of
+     * caching the values of a command without a limit
+     */
+    static final int MAX_CACHE_SIZE = 1 << 16;
+
+    final CommandKey key;
+    final Pipeline pipeline;
+    final boolean async;
+    final boolean cacheable;
+    final int cacheSize;
+    final long cacheMillis;
+    final List<ExecutableElement> methods = new ArrayList<>();
+    private final List<Integer> orders = new ArrayList<>();
+
+    CommandGroup(CommandKey key, Command annotation) {
+        this.key = key;
+        this.pipeline = annotation.pipeline();
+        this.async = annotation.async();
+        this.cacheable = annotation.cacheable();
+        this.cacheSize = annotation.cacheSize();
+        this.cacheMillis = annotation.cacheMillis();
+    }
+
+    void add(ExecutableElement method, Command annotation) {
+        if (annotation.pipeline() != pipeline || annotation.async() != async) {
+            throw new IllegalArgumentException("all the methods of the key " + key.literal()
+                    + " must have the same pipeline() and async() : " + method.getSimpleName() + "()");
+        }
+        if (cacheable || annotation.cacheable()) {
+            checkCacheable(method, annotation);
+        }
+        methods.add(method);
+        orders.add(annotation.order());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the {@link Command#cacheable()} method is not the only
+     *                                  method of it's key, does not return a value, takes more
+     *                                  than two parameters, is async, or it's cache can not hold
+     *                                  any value
+     */
+    private void checkCacheable(ExecutableElement method, Command annotation) throws IllegalArgumentException {
+        String error = null;
+        if (!methods.isEmpty()) {
+            error = " must be the only method of it's key";
+        } else if (method.getReturnType().getKind() == TypeKind.VOID) {
+            error = " must return a value";
+        } else if (method.getParameters().size() > 2) {
+            error = " must take two parameters at most";
+        } else if (async) {
+            error = " can not be async";
+        } else if (annotation.cacheSize() < 1 || annotation.cacheSize() > MAX_CACHE_SIZE) {
+            error = " must have a cacheSize() between 1 and " + MAX_CACHE_SIZE;
+        } else if (annotation.cacheMillis() < 0) {
+            error = " must have a cacheMillis() of 0 or more";
+        }
+        if (error != null) {
+            throw new IllegalArgumentException("the cacheable method of the key " + key.literal()
+                    + error + " : " + method.getSimpleName() + "()");
+        }
+    }
+
+    /**
+     * sort the methods by their {@link Command#order()}, keeping the methods of the same order
+     * in the order they are declared in
+     *
+     * @throws IllegalArgumentException if the pipeline is {@link Pipeline#FIRST_MATCH}, and a
+     *                                  method other than the last one does not return a
+     *                                  {@code boolean}
+     */
+    void sort() throws IllegalArgumentException {
+        if (methods.size() > 1) {
+            final List<ExecutableElement> declared = new ArrayList<>(methods);
+            Collections.sort(methods, new Comparator<ExecutableElement>() {
+                @Override
+                public int compare(ExecutableElement methodOne, ExecutableElement methodTwo) {
+                    return Integer.compare(orderOf(methodOne), orderOf(methodTwo));
+                }
+
+                private int orderOf(ExecutableElement method) {
+                    return orders.get(declared.indexOf(method));
+                }
+            });
+        }
+
+        if (pipeline != Pipeline.FIRST_MATCH) {
+            return;
+        }
+        for (ExecutableElement method : methods.subList(0, methods.size() - 1)) {
+            if (method.getReturnType().getKind() != TypeKind.BOOLEAN) {
+                throw new IllegalArgumentException("the methods of the key " + key.literal()
+                        + " with the FIRST_MATCH pipeline must return a boolean : "
+                        + method.getSimpleName() + "()");
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.compiler;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.util.Comparator;
+
+/**
+ * the key of a method annotated with {@link com.annotations.Command}, holding it's type, value
+ * and the index of the generated command that it is mapped to, where the value of an
+ * {@code enum} key is the name of it's constant, and the value of a {@code Class} key is it's
+ * binary name, as returned by {@link Class#getName()}
+ * <p>
+ * the prefixes and the ranges of keys are patterns of the {@code String} and the {@code int}
+ * keys, which are looked up after them, where the value of a prefix is the prefix itself, and
+ * the value of a range is it's first key
+ */
+class CommandKey {
+
+    enum Type {
+
+        INT("Int", TypeName.INT),
+        LONG("Long", TypeName.LONG),
+        FLOAT("Float", TypeName.FLOAT),
+        DOUBLE("Double", TypeName.DOUBLE),
+        STRING("String", ClassName.get(String.class)),
+        ENUM("Enum", ParameterizedTypeName.get(ClassName.get(Enum.class),
+                WildcardTypeName.subtypeOf(Object.class))),
+        CLASS("Class", ParameterizedTypeName.get(ClassName.get(Class.class),
+                WildcardTypeName.subtypeOf(Object.class))),
+        PREFIX("Prefix", ClassName.get(String.class)),
+        RANGE("Range", TypeName.INT);
+
+        final String methodSuffix;
+        final TypeName javaType;
+
+        Type(String methodSuffix, TypeName javaType) {
+            this.methodSuffix = methodSuffix;
+            this.javaType = javaType;
+        }
+
+        /**
+         * @return {@code true} if the keys of this type can be used as {@code case} labels
+         */
+        boolean isSwitchable() {
+            return this == INT || this == STRING;
+        }
+
+        /**
+         * @return {@code true} if the keys of this type match more than one key
+         */
+        boolean isPattern() {
+            return this == PREFIX || this == RANGE;
+        }
+
+        /**
+         * @return the type of the patterns of the keys of this type, or {@code null} if it has
+         * no patterns
+         */
+        Type patternType() {
+            return this == STRING ? PREFIX : this == INT ? RANGE : null;
+        }
+    }
+
+    final Type type;
+    final Object value;
+    final int index;
+
+    /**
+     * the {@code enum} of an {@code enum} key, or the class of a {@code Class} key, else
+     * {@code null}
+     */
+    final ClassName owner;
+
+    /**
+     * the last key of a range of keys, inclusive, else zero
+     */
+    final int to;
+
+    CommandKey(Type type, Object value, int index) {
+        this(type, value, null, index);
+    }
+
+    CommandKey(Type type, Object value, ClassName owner, int index) {
+        this(type, value, owner, 0, index);
+    }
+
+    private CommandKey(Type type, Object value, ClassName owner, int to, int index) {
+        this.type = type;
+        this.value = value;
+        this.owner = owner;
+        this.to = to;
+        this.index = index;
+    }
+
+    static CommandKey range(int from, int to, int index) {
+        return new CommandKey(Type.RANGE, from, null, to, index);
+    }
+
+    /**
+     * @return the key as a java literal, ready to be written in the generated code, where the
+     * patterns are written as the {@code String} that describes them, like {@code "order.*"}
+     * and {@code "400..499"}
+     */
+    String literal() {
+        switch (type) {
+            case LONG:
+                return value + "L";
+            case FLOAT:
+                return isFinite() ? value + "F" : "Float." + nonFiniteName();
+            case DOUBLE:
+                return isFinite() ? value + "D" : "Double." + nonFiniteName();
+            case STRING:
+                return stringLiteral((String) value);
+            case ENUM:
+                return owner + "." + value;
+            case CLASS:
+                return owner + ".class";
+            case PREFIX:
+                return stringLiteral(value + "*");
+            case RANGE:
+                return stringLiteral(value + ".." + to);
+            default:
+                return String.valueOf(value);
+        }
+    }
+
+    private boolean isFinite() {
+        double number = ((Number) value).doubleValue();
+        return !Double.isNaN(number) && !Double.isInfinite(number);
+    }
+
+    /**
+     * @return the name of the constant of a {@code float} or {@code double} key that has no
+     * literal, like {@code NaN}
+     */
+    private String nonFiniteName() {
+        double number = ((Number) value).doubleValue();
+        return Double.isNaN(number) ? "NaN" : number > 0 ? "POSITIVE_INFINITY" : "NEGATIVE_INFINITY";
+    }
+
+    /**
+     * @return the order of this key and the passed key of the same type, where the {@code int}
+     * and {@code long} keys are compared by their exact values, as a {@code double} can not hold
+     * the {@code long} values above 2^53, the {@code float} and {@code double} keys are compared
+     * like {@link Double#compare(double, double)}, and the {@code String} keys by their
+     * {@link String#hashCode()}, which is the value that a {@code switch} on {@code String} uses,
+     * and so are the names of {@code enum} and {@code Class} keys
+     */
+    int compareSortValue(CommandKey other) {
+        if (value instanceof String) {
+            return Integer.compare(value.hashCode(), other.value.hashCode());
+        } else if (value instanceof Long) {
+            return Long.compare((Long) value, (Long) other.value);
+        } else if (value instanceof Integer) {
+            return Integer.compare((Integer) value, (Integer) other.value);
+        } else {
+            return Double.compare(((Number) value).doubleValue(), ((Number) other.value).doubleValue());
+        }
+    }
+
+    static Comparator<CommandKey> bySortValue() {
+        return new Comparator<CommandKey>() {
+            @Override
+            public int compare(CommandKey keyOne, CommandKey keyTwo) {
+                return keyOne.compareSortValue(keyTwo);
+            }
+        };
+    }
+
+    /**
+     * @return the passed value as a java {@code String} literal
+     */
+    static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append("\"").toString();
+    }
+}
@@ -1,24 +1,44 @@
 package com.compiler;
 
 import com.annotations.Command;
+import com.annotations.Pipeline;
 import com.mapper.CommandsMap;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
-import javax.lang.model.element.Name;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
 import javax.tools.Diagnostic;
-import javax.tools.JavaFileObject;
-
-import io.reactivex.Observable;
-import io.reactivex.annotations.NonNull;
-import io.reactivex.functions.Consumer;
-import io.reactivex.functions.Predicate;
 
 import static com.annotations.Command.NULL_DOUBLE;
 import static com.annotations.Command.NULL_FLOAT;
@@ -38,14 +58,82 @@ import static com.annotations.Command.NULL_STRING;
  * Created by Ahmed Adel Ismail on 7/16/2017.
  */
 
-class CommandMapGenerator implements Consumer<TypeElement> {
+class CommandMapGenerator {
+
+    /**
+     * methods with more than 8000 bytes of byte code are not compiled by the JIT compiler of the
+     * JVM, so the generated methods are split to keep each one below that size
+     */
+    private static final int MAX_CASES_PER_METHOD = 128;
+    private static final int LINEAR_SEARCH_SIZE = 4;
+
+    /**
+     * the name of the generated class that holds the typed methods of every host class
+     */
+    static final String GENERATED_COMMANDS_NAME = "$$Commands";
+
+    /**
+     * the name of the nested class that holds the lookup tables of a generated class, which is
+     * initialized on the first lookup that reads them, rather than when the first instance of
+     * the generated class is created, where it's fields are not private, so they are read
+     * without synthetic accessors
+     */
+    private static final String TABLES_NAME = "$$Tables";
+
+    /**
+     * the generated methods that invoke the commands, and how every one of them passes it's
+     * parameters to the methods of the host object
+     */
+    private enum Invoker {
+
+        /**
+         * {@code invoke(int index, Object o1, Object o2)}, where the parameters after the second
+         * one are passed as {@code null}
+         */
+        INVOKE("invoke", "index, o1, o2", false),
+
+        /**
+         * {@code invokeAll(int index, Object[] parameters, int from, int to)}, which invokes the
+         * command in a loop, passing every parameter as {@code o1}
+         */
+        INVOKE_ALL("invokeAll", "index, parameters, from, to", false),
+
+        /**
+         * {@code invokeWith(int index, Object[] parameters)}, which passes all the parameters
+         */
+        INVOKE_WITH("invokeWith", "index, parameters", false),
+
+        /**
+         * {@code call(int index, Object o1, Object o2)}, which returns the value returned by the
+         * last invoked method, or {@code null} if it is {@code void}
+         */
+        CALL("call", "index, o1, o2", true),
+
+        /**
+         * {@code callWith(int index, Object[] parameters)}, which passes all the parameters, and
+         * returns like {@link #CALL}
+         */
+        CALL_WITH("callWith", "index, parameters", true),
 
-    private static final String INDENT = "    ";
-    private static final String NEW_LINE = "\n";
-    private static final String END_LINE = ";\n";
-    private static final String START_BLOCK = "{\n";
-    private static final String END_BLOCK = "}\n";
-    private static final String END_METHOD_CALL = ");\n";
+        /**
+         * the typed {@code command$...()} methods, which pass their typed parameters as is
+         */
+        TYPED(null, null, false);
+
+        final String methodName;
+        final String arguments;
+        final boolean returning;
+
+        Invoker(String methodName, String arguments, boolean returning) {
+            this.methodName = methodName;
+            this.arguments = arguments;
+            this.returning = returning;
+        }
+
+        boolean passesAllParameters() {
+            return this == INVOKE_WITH || this == CALL_WITH;
+        }
+    }
 
     private final ProcessingEnvironment environment;
 
@@ -54,238 +142,1427 @@ class CommandMapGenerator implements Consumer<TypeElement> {
         this.environment = environment;
     }
 
-    @Override
-    public void accept(@NonNull TypeElement element) throws Exception {
-        String generatedClassName = originalClassName(element) + CommandsMap.GENERATED_NAME;
+    /**
+     * generate the {@link CommandsMap} of the passed class, and the {@code $$Commands} class
+     * that holds it's typed methods, the class is the only originating element of the generated
+     * files, so they are regenerated only when this class (or one of it's super classes, which
+     * are reached through it) changes
+     */
+    void accept(TypeElement element) {
         try {
-            generateFile(generatedClassName, generateCode(element, generatedClassName));
+            List<Command> annotations = new ArrayList<>();
+            List<ExecutableElement> methods = commandMethods(element, annotations);
+            List<CommandGroup> groups = commandGroups(methods, annotations);
+            generateCode(element, groups).writeTo(environment.getFiler());
+            generateCommands(element, groups).writeTo(environment.getFiler());
         } catch (IOException e) {
             // this occurs if the file already existing after its first run, this is normal
         } catch (Exception e) {
-            environment.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+            environment.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), element);
+        }
+    }
+
+    private JavaFile generateCode(TypeElement element, List<CommandGroup> groups) {
+        ClassName hostClassName = ClassName.get(element);
+        TypeSpec.Builder commandsMap = TypeSpec.classBuilder(element.getSimpleName() + CommandsMap.GENERATED_NAME)
+                .addOriginatingElement(element)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(CommandsMap.class);
+
+        List<CommandKey> keys = new ArrayList<>(groups.size());
+        for (CommandGroup group : groups) {
+            keys.add(group.key);
+        }
+
+        TypeSpec.Builder tables = TypeSpec.classBuilder(TABLES_NAME)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL);
+        for (CommandKey.Type type : CommandKey.Type.values()) {
+            if (!type.isPattern()) {
+                addIndexOf(commandsMap, tables, type, keysOfType(keys, type),
+                        keysOfType(keys, type.patternType()));
+            }
+        }
+        TypeSpec tablesSpec = tables.build();
+        if (!tablesSpec.fieldSpecs.isEmpty()) {
+            commandsMap.addType(tablesSpec);
+        }
+
+        List<CodeBlock> commandBodies = commandBodies(groups, Invoker.INVOKE);
+        addInvoke(commandsMap, commandBodies, hostClassName, Invoker.INVOKE);
+        addInvoke(commandsMap, commandBodies, hostClassName, Invoker.INVOKE_ALL);
+        // the call() methods of the base class invoke the commands and return null, so they are
+        // generated only for the classes that has methods that return values
+        boolean returningValues = hasReturnValues(groups);
+        if (returningValues) {
+            addInvoke(commandsMap, commandBodies(groups, Invoker.CALL), hostClassName, Invoker.CALL);
+        }
+        if (maxParametersCount(groups) > 2) {
+            addInvoke(commandsMap, commandBodies(groups, Invoker.INVOKE_WITH), hostClassName,
+                    Invoker.INVOKE_WITH);
+            if (returningValues) {
+                addInvoke(commandsMap, commandBodies(groups, Invoker.CALL_WITH), hostClassName,
+                        Invoker.CALL_WITH);
+            }
+        }
+        addIsAsync(commandsMap, groups);
+        addCacheOf(commandsMap, groups);
+        addIsKeyPattern(commandsMap, keys);
+        addKeyOf(commandsMap, keys);
+        addTypedCommands(commandsMap, groups, hostClassName);
+
+        return JavaFile.builder(hostClassName.packageName(), commandsMap.build()).build();
+    }
+
+    private boolean hasReturnValues(List<CommandGroup> groups) {
+        for (CommandGroup group : groups) {
+            for (ExecutableElement method : group.methods) {
+                if (method.getReturnType().getKind() != TypeKind.VOID) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int maxParametersCount(List<CommandGroup> groups) {
+        int maxParametersCount = 0;
+        for (CommandGroup group : groups) {
+            for (ExecutableElement method : group.methods) {
+                maxParametersCount = Math.max(maxParametersCount, method.getParameters().size());
+            }
+        }
+        return maxParametersCount;
+    }
+
+    /**
+     * @param annotations the list that will hold the {@link Command} annotation of every method,
+     *                    as reading an annotation from it's element creates a new proxy
+     * @return the methods annotated with {@link Command} in the passed class and it's super
+     * classes, starting with the methods of the top most super class, in the order they are
+     * declared in, where the keys are resolved at compile time to the lowest class that declares
+     * them, so a key that is declared again in a sub class is mapped to the methods of the sub
+     * class only, and an annotated method that is overridden by an annotated method is replaced
+     * by it, while an annotated method that is overridden by a method that is not annotated keeps
+     * it's key, and invokes the overriding method
+     */
+    private List<ExecutableElement> commandMethods(TypeElement element, List<Command> annotations) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        List<ExecutableElement> subClassesMethods = new ArrayList<>();
+        Set<List<Object>> subClassesKeys = new HashSet<>();
+        for (TypeElement type = element; type != null; type = superclassOf(type)) {
+            List<ExecutableElement> typeMethods = new ArrayList<>();
+            List<Command> typeAnnotations = new ArrayList<>();
+            Set<List<Object>> typeKeys = new HashSet<>();
+            for (Element enclosedElement : type.getEnclosedElements()) {
+                Command annotation = enclosedElement.getAnnotation(Command.class);
+                if (annotation == null) {
+                    continue;
+                }
+                ExecutableElement method = (ExecutableElement) enclosedElement;
+                List<Object> keyValue = keyValue(parseKeyFromCommandAnnotation(method, annotation, 0));
+                boolean replaced = subClassesKeys.contains(keyValue)
+                        || isOverridden(method, subClassesMethods, element);
+                subClassesMethods.add(method);
+                if (replaced) {
+                    continue;
+                }
+                if (type != element) {
+                    checkInherited(element, method);
+                }
+                typeMethods.add(method);
+                typeAnnotations.add(annotation);
+                typeKeys.add(keyValue);
+            }
+            methods.addAll(0, typeMethods);
+            annotations.addAll(0, typeAnnotations);
+            subClassesKeys.addAll(typeKeys);
+        }
+        return methods;
+    }
+
+    /**
+     * @return the super class of the passed class, or {@code null} if it is {@link Object}
+     */
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private boolean isOverridden(ExecutableElement method, List<ExecutableElement> subClassesMethods,
+                                 TypeElement element) {
+        for (ExecutableElement subClassMethod : subClassesMethods) {
+            if (environment.getElementUtils().overrides(subClassMethod, method, element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the passed method of a super class can not be invoked
+     *                                  by the {@link CommandsMap} of the passed class, which is
+     *                                  generated in the package of the passed class, or if it's
+     *                                  signature depends on the type arguments of a generic
+     *                                  super class
+     */
+    private void checkInherited(TypeElement element, ExecutableElement method)
+            throws IllegalArgumentException {
+        Elements elements = environment.getElementUtils();
+        Set<Modifier> modifiers = method.getModifiers();
+        boolean samePackage = elements.getPackageOf(method).equals(elements.getPackageOf(element));
+        if (modifiers.contains(Modifier.PRIVATE) || (!samePackage && !modifiers.contains(Modifier.PUBLIC))) {
+            throw new IllegalArgumentException("the inherited @" + Command.class.getSimpleName()
+                    + " methods must be public, or not private in the same package : "
+                    + method.getEnclosingElement().getSimpleName() + "." + method.getSimpleName() + "()");
+        }
+
+        ExecutableType memberType = (ExecutableType) environment.getTypeUtils()
+                .asMemberOf((DeclaredType) element.asType(), method);
+        boolean sameSignature = TypeName.get(memberType.getReturnType())
+                .equals(TypeName.get(method.getReturnType()));
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            sameSignature &= TypeName.get(memberType.getParameterTypes().get(i))
+                    .equals(TypeName.get(method.getParameters().get(i).asType()));
+        }
+        if (!sameSignature) {
+            throw new IllegalArgumentException("the inherited @" + Command.class.getSimpleName()
+                    + " methods can not use the type parameters of their class : "
+                    + method.getEnclosingElement().getSimpleName() + "." + method.getSimpleName() + "()");
+        }
+    }
+
+    private static List<Object> keyValue(CommandKey key) {
+        return Arrays.asList(key.type, key.owner, key.value, key.to);
+    }
+
+    /**
+     * group the methods by their keys, where every group is one command, and the index of the
+     * command is the order of the first method of it's key in the class and it's super classes
+     */
+    private List<CommandGroup> commandGroups(List<ExecutableElement> methods, List<Command> annotations) {
+        Map<List<Object>, CommandGroup> groups = new LinkedHashMap<>();
+        for (int i = 0; i < methods.size(); i++) {
+            CommandKey key = parseKeyFromCommandAnnotation(methods.get(i), annotations.get(i), groups.size());
+            List<Object> keyValue = keyValue(key);
+            CommandGroup group = groups.get(keyValue);
+            if (group == null) {
+                group = new CommandGroup(key, annotations.get(i));
+                groups.put(keyValue, group);
+            }
+            group.add(methods.get(i), annotations.get(i));
+        }
+        for (CommandGroup group : groups.values()) {
+            group.sort();
+        }
+        checkAmbiguousKeys(groups.values());
+        checkOverlappingRanges(groups.values());
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * @throws IllegalArgumentException if two numeric keys of different types have the same
+     *                                  value, like {@code 1} and {@code 1L}, which are looked up
+     *                                  as different keys, so the command of a key would depend on
+     *                                  the type of the number passed to execute(), where the
+     *                                  keys {@code -0.0} and {@code 0.0} of the same type are
+     *                                  different keys
+     */
+    private void checkAmbiguousKeys(Collection<CommandGroup> groups) throws IllegalArgumentException {
+        Map<BigDecimal, CommandGroup> numericKeys = new TreeMap<>();
+        Map<Double, CommandGroup> nonFiniteKeys = new HashMap<>();
+        for (CommandGroup group : groups) {
+            if (!(group.key.value instanceof Number) || group.key.type.isPattern()) {
+                continue;
+            }
+            Number value = (Number) group.key.value;
+            boolean integer = group.key.type == CommandKey.Type.INT || group.key.type == CommandKey.Type.LONG;
+            CommandGroup sameValueGroup;
+            if (integer) {
+                sameValueGroup = numericKeys.put(BigDecimal.valueOf(value.longValue()), group);
+            } else if (Double.isNaN(value.doubleValue()) || Double.isInfinite(value.doubleValue())) {
+                sameValueGroup = nonFiniteKeys.put(value.doubleValue(), group);
+            } else {
+                sameValueGroup = numericKeys.put(new BigDecimal(value.doubleValue()), group);
+            }
+            if (sameValueGroup != null && sameValueGroup.key.type != group.key.type) {
+                throw new IllegalArgumentException("the keys " + sameValueGroup.key.literal()
+                        + " and " + group.key.literal() + " have the same value : "
+                        + sameValueGroup.methods.get(0).getSimpleName() + "() and "
+                        + group.methods.get(0).getSimpleName() + "()");
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if two ranges of keys share a key, where the command of
+     *                                  this key would be ambiguous
+     */
+    private void checkOverlappingRanges(Collection<CommandGroup> groups) throws IllegalArgumentException {
+        List<CommandKey> ranges = new ArrayList<>();
+        for (CommandGroup group : groups) {
+            if (group.key.type == CommandKey.Type.RANGE) {
+                ranges.add(group.key);
+            }
+        }
+        Collections.sort(ranges, CommandKey.bySortValue());
+        for (int i = 1; i < ranges.size(); i++) {
+            if (ranges.get(i - 1).to >= (Integer) ranges.get(i).value) {
+                throw new IllegalArgumentException("the ranges of keys " + ranges.get(i - 1).literal()
+                        + " and " + ranges.get(i).literal() + " overlap");
+            }
+        }
+    }
+
+    private List<CommandKey> keysOfType(List<CommandKey> keys, CommandKey.Type type) {
+        List<CommandKey> keysOfType = new ArrayList<>();
+        for (CommandKey key : keys) {
+            if (key.type == type) {
+                keysOfType.add(key);
+            }
+        }
+        Collections.sort(keysOfType, CommandKey.bySortValue());
+        return keysOfType;
+    }
+
+    /**
+     * add the {@code indexOf...()} method of the passed keys type, a {@code switch} is generated
+     * for {@code int} and {@code String} keys, and a binary search through {@code if} conditions
+     * for the other types, if the keys are more than {@link #MAX_CASES_PER_METHOD}, the keys are
+     * split over multiple methods to stay below the size limit of the JIT compiled methods,
+     * except for {@code String} keys, which are generated as a perfect hash (unless they can not
+     * be hashed), as a lookup through the chunks of {@code switch} statements gets slower with
+     * every chunk, while a small {@code switch} is faster than the perfect hash
+     * <p>
+     * if the keys of this type has patterns (like prefixes of {@code String} keys), the keys are
+     * looked up in a private {@code indexOfExact...()} method, and the patterns are looked up if
+     * the key was not found there
+     *
+     * @param tables the nested class of the lookup tables, where the tables of the keys are added
+     */
+    private void addIndexOf(TypeSpec.Builder commandsMap, TypeSpec.Builder tables,
+                            CommandKey.Type type, List<CommandKey> keys, List<CommandKey> patterns) {
+        String methodName = "indexOf" + type.methodSuffix;
+        if (!patterns.isEmpty()) {
+            String exactMethodName = "indexOfExact" + type.methodSuffix;
+            addPatternIndexOf(commandsMap, tables, type, keys.isEmpty() ? null : exactMethodName,
+                    patterns);
+            methodName = exactMethodName;
+        }
+
+        if (keys.isEmpty()) {
+            return;
+        } else if (type == CommandKey.Type.ENUM) {
+            addEnumIndexOf(commandsMap, tables, keys);
+            return;
+        } else if (type == CommandKey.Type.CLASS) {
+            addClassIndexOf(commandsMap, keys);
+            return;
+        }
+
+        if (type == CommandKey.Type.STRING && keys.size() > MAX_CASES_PER_METHOD) {
+            StringKeysHash hash = StringKeysHash.of(keys);
+            if (hash != null) {
+                addPerfectHashIndexOf(commandsMap, tables, hash, methodName);
+                return;
+            }
+        }
+
+        List<List<CommandKey>> chunks = chunks(keys);
+        MethodSpec.Builder indexOf = indexOfMethod(methodName, type);
+
+        if (chunks.size() == 1) {
+            indexOf.addCode(indexOfBody(type, keys));
+        } else {
+            CodeBlock.Builder code = CodeBlock.builder();
+            String chunkKey = "key";
+            if (type == CommandKey.Type.STRING) {
+                chunkKey = "hash";
+                code.addStatement("int hash = key.hashCode()");
+            }
+            addChunkSearch(code, chunks, chunkKey, methodName, 0, chunks.size());
+            indexOf.addCode(code.build());
+        }
+
+        commandsMap.addMethod(indexOf.build());
+
+        if (chunks.size() > 1) {
+            for (int i = 0; i < chunks.size(); i++) {
+                commandsMap.addMethod(MethodSpec.methodBuilder(methodName + i)
+                        .addModifiers(Modifier.PRIVATE)
+                        .returns(int.class)
+                        .addParameter(type.javaType, "key")
+                        .addCode(indexOfBody(type, chunks.get(i)))
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * @return the {@code indexOf...()} method of the passed type, which overrides the method of
+     * {@link CommandsMap}, or the private {@code indexOfExact...()} method of a type that has
+     * patterns
+     */
+    private MethodSpec.Builder indexOfMethod(String methodName, CommandKey.Type type) {
+        MethodSpec.Builder indexOf = MethodSpec.methodBuilder(methodName);
+        if (methodName.equals("indexOf" + type.methodSuffix)) {
+            indexOf.addAnnotation(Override.class).addModifiers(Modifier.PROTECTED);
+        } else {
+            indexOf.addModifiers(Modifier.PRIVATE);
+        }
+        return indexOf.returns(int.class).addParameter(type.javaType, "key");
+    }
+
+    /**
+     * add the {@code indexOf...()} method of a type that has patterns, which looks up the
+     * patterns if the key is not found in the passed {@code indexOfExact...()} method, where the
+     * prefixes of {@code String} keys are looked up in a trie, and the ranges of {@code int} keys
+     * through a binary search
+     *
+     * @param exactMethodName the method that looks up the keys, or {@code null} if the type has
+     *                        patterns only
+     */
+    private void addPatternIndexOf(TypeSpec.Builder commandsMap, TypeSpec.Builder tables,
+                                   CommandKey.Type type, String exactMethodName,
+                                   List<CommandKey> patterns) {
+        CodeBlock patternIndexOf;
+        if (type == CommandKey.Type.STRING) {
+            CharSequence trie = KeyPrefixesTrie.of(patterns);
+            if (trie == null) {
+                throw new IllegalArgumentException("the key prefixes are too many to be generated, "
+                        + "split them over more classes");
+            }
+            tables.addField(charsField("PREFIXES_TRIE", trie));
+            patternIndexOf = CodeBlock.of("indexOfPrefix(key, $L.PREFIXES_TRIE)", TABLES_NAME);
+        } else {
+            addRangeIndexOf(commandsMap, patterns);
+            patternIndexOf = CodeBlock.of("indexOfRange(key)");
+        }
+
+        MethodSpec.Builder indexOf = indexOfMethod("indexOf" + type.methodSuffix, type);
+        if (exactMethodName == null) {
+            indexOf.addStatement("return $L", patternIndexOf);
+        } else {
+            indexOf.addStatement("int index = $L(key)", exactMethodName)
+                    .addStatement("return index != NO_COMMAND ? index : $L", patternIndexOf);
+        }
+        commandsMap.addMethod(indexOf.build());
+    }
+
+    /**
+     * add the private {@code indexOfRange()} method, which finds the range of the key through a
+     * binary search of the first keys of the ranges, split over multiple methods like the other
+     * numeric keys
+     */
+    private void addRangeIndexOf(TypeSpec.Builder commandsMap, List<CommandKey> ranges) {
+        List<List<CommandKey>> chunks = chunks(ranges);
+        CodeBlock.Builder code = CodeBlock.builder();
+        if (chunks.size() == 1) {
+            addRangeSearch(code, ranges, 0, ranges.size());
+            code.addStatement("return NO_COMMAND");
+        } else {
+            addChunkSearch(code, chunks, "key", "indexOfRange", 0, chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                CodeBlock.Builder chunkCode = CodeBlock.builder();
+                addRangeSearch(chunkCode, chunks.get(i), 0, chunks.get(i).size());
+                commandsMap.addMethod(MethodSpec.methodBuilder("indexOfRange" + i)
+                        .addModifiers(Modifier.PRIVATE)
+                        .returns(int.class)
+                        .addParameter(int.class, "key")
+                        .addCode(chunkCode.addStatement("return NO_COMMAND").build())
+                        .build());
+            }
+        }
+        commandsMap.addMethod(MethodSpec.methodBuilder("indexOfRange")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(int.class)
+                .addParameter(int.class, "key")
+                .addCode(code.build())
+                .build());
+    }
+
+    private void addRangeSearch(CodeBlock.Builder code, List<CommandKey> ranges, int from, int to) {
+        if (to - from <= LINEAR_SEARCH_SIZE) {
+            for (int i = from; i < to; i++) {
+                CommandKey range = ranges.get(i);
+                code.addStatement("if (key >= $L && key <= $L) return $L", range.value, range.to, range.index);
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        code.beginControlFlow("if (key < $L)", ranges.get(middle).value);
+        addRangeSearch(code, ranges, from, middle);
+        code.nextControlFlow("else");
+        addRangeSearch(code, ranges, middle, to);
+        code.endControlFlow();
+    }
+
+    /**
+     * add the {@code indexOfEnum()} method, which checks the {@code enum} of the key, then reads
+     * the index of it's command from an array of the ordinals of this {@code enum}
+     */
+    private void addEnumIndexOf(TypeSpec.Builder commandsMap, TypeSpec.Builder tables,
+                                List<CommandKey> keys) {
+        Map<ClassName, List<CommandKey>> enumsKeys = new LinkedHashMap<>();
+        for (CommandKey key : keys) {
+            List<CommandKey> enumKeys = enumsKeys.get(key.owner);
+            if (enumKeys == null) {
+                enumKeys = new ArrayList<>();
+                enumsKeys.put(key.owner, enumKeys);
+            }
+            enumKeys.add(key);
+        }
+
+        CodeBlock.Builder code = CodeBlock.builder()
+                .addStatement("Class<?> type = key.getDeclaringClass()");
+        int enumIndex = 0;
+        for (Map.Entry<ClassName, List<CommandKey>> enumKeys : enumsKeys.entrySet()) {
+            String fieldName = "ENUM_COMMANDS_" + enumIndex++;
+            CodeBlock.Builder ordinals = CodeBlock.builder()
+                    .add("$T.values().length", enumKeys.getKey());
+            for (CommandKey key : enumKeys.getValue()) {
+                ordinals.add(",\n$T.$L.ordinal(), $L", key.owner, key.value, key.index);
+            }
+            tables.addField(FieldSpec.builder(int[].class, fieldName, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("commandsOfOrdinals($>$>$L$<$<)", ordinals.build())
+                    .build());
+            code.addStatement("if (type == $T.class) return $L.$L[key.ordinal()]", enumKeys.getKey(),
+                    TABLES_NAME, fieldName);
+        }
+        code.addStatement("return NO_COMMAND");
+
+        commandsMap.addMethod(MethodSpec.methodBuilder("indexOfEnum")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(int.class)
+                .addParameter(CommandKey.Type.ENUM.javaType, "key")
+                .addCode(code.build())
+                .build());
+    }
+
+    /**
+     * add the {@code indexOfClass()} method, which compares the key to every {@code Class} if
+     * they are a few, else a {@code switch} on the name of the key finds the only
+     * {@code Class} that it may be, which is compared to the key, as classes of the same name
+     * may be loaded by different class loaders
+     */
+    private void addClassIndexOf(TypeSpec.Builder commandsMap, List<CommandKey> keys) {
+        CodeBlock.Builder code = CodeBlock.builder();
+        if (keys.size() <= LINEAR_SEARCH_SIZE) {
+            for (CommandKey key : keys) {
+                code.addStatement("if (key == $T.class) return $L", key.owner, key.index);
+            }
+            code.addStatement("return NO_COMMAND");
+        } else {
+            code.beginControlFlow("switch (key.getName())");
+            for (CommandKey key : keys) {
+                code.add("case $S: return key == $T.class ? $L : NO_COMMAND;\n", key.value, key.owner, key.index);
+            }
+            code.add("default: return NO_COMMAND;\n")
+                    .endControlFlow();
+        }
+
+        commandsMap.addMethod(MethodSpec.methodBuilder("indexOfClass")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(int.class)
+                .addParameter(CommandKey.Type.CLASS.javaType, "key")
+                .addCode(code.build())
+                .build());
+    }
+
+    /**
+     * add the {@code indexOfString()} method of the passed {@link StringKeysHash}, which computes
+     * the slot of the key through the seed of it's bucket, then compares the key to the only key
+     * in this slot, the keys are held in an array rather than the cases of a {@code switch}, as
+     * the compiled code of a {@code switch} that compares to a different key in every case grows
+     * with the number of keys, and slows down the lookup of random keys by it's cache misses
+     */
+    private void addPerfectHashIndexOf(TypeSpec.Builder commandsMap, TypeSpec.Builder tables,
+                                       StringKeysHash hash, String methodName) {
+        CodeBlock.Builder keys = CodeBlock.builder();
+        StringBuilder indexes = new StringBuilder();
+        for (int i = 0; i < hash.slots.length; i++) {
+            keys.add(i == 0 ? "$L" : i % 8 == 0 ? ",\n$L" : ", $L", hash.slots[i].literal());
+            indexes.append((char) hash.slots[i].index);
+        }
+        StringBuilder seeds = new StringBuilder();
+        for (int seed : hash.seeds) {
+            seeds.append((char) seed);
+        }
+        tables.addField(charsField("STRING_SEEDS", seeds))
+                .addField(FieldSpec.builder(String[].class, "STRING_KEYS", Modifier.STATIC, Modifier.FINAL)
+                        .initializer("{\n$>$>$L$<$<\n}", keys.build())
+                        .build())
+                .addField(charsField("STRING_INDEXES", indexes));
+
+        commandsMap.addMethod(indexOfMethod(methodName, CommandKey.Type.STRING)
+                .addStatement("int hash = key.hashCode()")
+                .addStatement("int seed = $L.STRING_SEEDS[(hash * $L) >>> $L]", TABLES_NAME,
+                        hexLiteral(StringKeysHash.BUCKET_MULTIPLIER), hash.bucketShift)
+                .addStatement("int slot = (int) ((((hash ^ seed) * $L) & 0xFFFFFFFFL) * $L >>> 32)",
+                        hexLiteral(StringKeysHash.SLOT_MULTIPLIER), hash.slots.length)
+                .addStatement("return key.equals($L.STRING_KEYS[slot]) ? $L.STRING_INDEXES[slot] : NO_COMMAND",
+                        TABLES_NAME, TABLES_NAME)
+                .build());
+    }
+
+    /**
+     * @return a {@code char[]} field that is initialized from a {@code String} constant, which
+     * takes a few bytes of the static initializer, unlike an array initializer, that takes a
+     * few bytes for every value, the constant is written in lines of 16 chars that are joined
+     * by the java compiler
+     */
+    private FieldSpec charsField(String name, CharSequence chars) {
+        CodeBlock.Builder constant = CodeBlock.builder();
+        for (int i = 0; i < chars.length(); i += 16) {
+            String line = chars.subSequence(i, Math.min(chars.length(), i + 16)).toString();
+            constant.add(i == 0 ? "$L" : "\n+ $L", CommandKey.stringLiteral(line));
+        }
+        return FieldSpec.builder(char[].class, name, Modifier.STATIC, Modifier.FINAL)
+                .initializer("($>$>$L$<$<).toCharArray()", constant.build())
+                .build();
+    }
+
+    private static String hexLiteral(int value) {
+        return "0x" + Integer.toHexString(value).toUpperCase();
+    }
+
+    /**
+     * add a binary search through the last key of every chunk, that invokes the method of the
+     * chunk that may hold the key
+     */
+    private void addChunkSearch(CodeBlock.Builder code, List<List<CommandKey>> chunks,
+                                String chunkKey, String methodName, int from, int to) {
+        if (to - from == 1) {
+            code.addStatement("return $L$L(key)", methodName, from);
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        List<CommandKey> lastChunk = chunks.get(middle - 1);
+        CommandKey lastKey = lastChunk.get(lastChunk.size() - 1);
+        Object lastValue = lastKey.type == CommandKey.Type.STRING ? lastKey.value.hashCode()
+                : lastKey.type == CommandKey.Type.RANGE ? lastKey.to : lastKey.literal();
+        code.beginControlFlow("if ($L)", comparison(lastKey.type, chunkKey, "<=", lastValue));
+        addChunkSearch(code, chunks, chunkKey, methodName, from, middle);
+        code.nextControlFlow("else");
+        addChunkSearch(code, chunks, chunkKey, methodName, middle, to);
+        code.endControlFlow();
+    }
+
+    private CodeBlock indexOfBody(CommandKey.Type type, List<CommandKey> keys) {
+        CodeBlock.Builder code = CodeBlock.builder();
+        if (type.isSwitchable()) {
+            code.beginControlFlow("switch (key)");
+            for (CommandKey key : keys) {
+                code.add("case $L: return $L;\n", key.literal(), key.index);
+            }
+            code.add("default: return NO_COMMAND;\n");
+            code.endControlFlow();
+        } else {
+            addBinarySearch(code, keys, 0, keys.size());
+            code.addStatement("return NO_COMMAND");
+        }
+        return code.build();
+    }
+
+    private void addBinarySearch(CodeBlock.Builder code, List<CommandKey> keys, int from, int to) {
+        if (to - from <= LINEAR_SEARCH_SIZE) {
+            for (int i = from; i < to; i++) {
+                CommandKey key = keys.get(i);
+                code.addStatement("if ($L) return $L", comparison(key.type, "key", "==", key.literal()),
+                        key.index);
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        CommandKey middleKey = keys.get(middle);
+        code.beginControlFlow("if ($L)", comparison(middleKey.type, "key", "<", middleKey.literal()));
+        addBinarySearch(code, keys, from, middle);
+        code.nextControlFlow("else");
+        addBinarySearch(code, keys, middle, to);
+        code.endControlFlow();
+    }
+
+    /**
+     * @return the condition that compares the passed key to the value of a key of the passed
+     * type, where the {@code float} and {@code double} keys are compared like
+     * {@link Double#compare(double, double)}, so {@code -0.0} is a different key than
+     * {@code 0.0} and {@code NaN} is a key, like they are for {@link Double#equals(Object)}, and
+     * the keys are searched in the order they are sorted in
+     */
+    private static CodeBlock comparison(CommandKey.Type type, String key, String operator, Object value) {
+        if (type == CommandKey.Type.DOUBLE) {
+            return CodeBlock.of("$T.compare($L, $L) $L 0", Double.class, key, value, operator);
+        } else if (type == CommandKey.Type.FLOAT) {
+            return CodeBlock.of("$T.compare($L, $L) $L 0", Float.class, key, value, operator);
         }
+        return CodeBlock.of("$L $L $L", key, operator, value);
     }
 
-    private String originalClassName(@NonNull TypeElement element) {
-        return element.getSimpleName().toString();
+    /**
+     * split the sorted keys into chunks of {@link #MAX_CASES_PER_METHOD}, keys with the same
+     * sort value (like {@code String} keys with the same hash code) are kept in the same chunk
+     */
+    private List<List<CommandKey>> chunks(List<CommandKey> sortedKeys) {
+        List<List<CommandKey>> chunks = new ArrayList<>();
+        List<CommandKey> chunk = new ArrayList<>();
+        for (CommandKey key : sortedKeys) {
+            if (chunk.size() >= MAX_CASES_PER_METHOD
+                    && chunk.get(chunk.size() - 1).compareSortValue(key) != 0) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.add(key);
+        }
+        chunks.add(chunk);
+        return chunks;
     }
 
-    private void generateFile(String generatedClassName, StringBuilder stringBuilder)
-            throws IOException {
-        JavaFileObject source = environment.getFiler().createSourceFile(generatedClassName);
-        Writer writer = source.openWriter();
-        writer.write(stringBuilder.toString());
-        writer.flush();
-        writer.close();
+    /**
+     * add the {@code invoke()} method, which holds a {@code switch} on the index of the command
+     * that invokes the annotated method on the host object directly, the {@code invokeAll()}
+     * method, which invokes the annotated method in a loop for all the passed parameters, the
+     * {@code invokeWith()} method, which passes any number of parameters, or the {@code call()}
+     * and {@code callWith()} methods, which return the value returned by the annotated method
+     */
+    private void addInvoke(TypeSpec.Builder commandsMap, List<CodeBlock> commandBodies,
+                           ClassName hostClassName, Invoker invoker) {
+        if (commandBodies.isEmpty()) {
+            return;
+        }
+
+        int chunksCount = (commandBodies.size() + MAX_CASES_PER_METHOD - 1) / MAX_CASES_PER_METHOD;
+
+        MethodSpec.Builder invoke = invokeMethod(invoker.methodName, invoker)
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED);
+
+        if (chunksCount == 1) {
+            invoke.addCode(invokeBody(commandBodies, 0, commandBodies.size(), hostClassName, invoker));
+        } else {
+            CodeBlock.Builder code = CodeBlock.builder()
+                    .beginControlFlow("switch (index / $L)", MAX_CASES_PER_METHOD);
+            for (int i = 0; i < chunksCount; i++) {
+                if (invoker.returning) {
+                    code.add("case $L: return $L$L($L);\n", i, invoker.methodName, i, invoker.arguments);
+                } else {
+                    code.add("case $L: $L$L($L);\n$>break;\n$<", i, invoker.methodName, i, invoker.arguments);
+                }
+            }
+            code.endControlFlow();
+            if (invoker.returning) {
+                code.addStatement("return null");
+            }
+            invoke.addCode(code.build());
+        }
+
+        commandsMap.addMethod(invoke.build());
+
+        if (chunksCount > 1) {
+            for (int i = 0; i < chunksCount; i++) {
+                int from = i * MAX_CASES_PER_METHOD;
+                int to = Math.min(commandBodies.size(), from + MAX_CASES_PER_METHOD);
+                commandsMap.addMethod(invokeMethod(invoker.methodName + i, invoker)
+                        .addModifiers(Modifier.PRIVATE)
+                        .addCode(invokeBody(commandBodies, from, to, hostClassName, invoker))
+                        .build());
+            }
+        }
     }
 
-    private StringBuilder generateCode(@NonNull TypeElement element, String generatedClassName) {
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("package ")
-                .append(packageName(element))
-                .append(END_LINE)
-                .append(NEW_LINE);
+    private MethodSpec.Builder invokeMethod(String methodName, Invoker invoker) {
+        MethodSpec.Builder invoke = MethodSpec.methodBuilder(methodName)
+                .addParameter(int.class, "index");
+        if (invoker.returning) {
+            invoke.returns(Object.class);
+        }
+        if (invoker == Invoker.INVOKE_ALL) {
+            invoke.addParameter(Object[].class, "parameters")
+                    .addParameter(int.class, "from")
+                    .addParameter(int.class, "to");
+        } else if (invoker.passesAllParameters()) {
+            invoke.addParameter(Object[].class, "parameters");
+        } else {
+            invoke.addParameter(Object.class, "o1")
+                    .addParameter(Object.class, "o2");
+        }
+        return invoke;
+    }
 
-        stringBuilder.append("import com.mapper.*")
-                .append(END_LINE)
-                .append(NEW_LINE);
+    /**
+     * add the {@code isAsync()} method if there are methods annotated with {@link Command#async()},
+     * else the {@link CommandsMap} executes all the commands on the calling thread
+     */
+    private void addIsAsync(TypeSpec.Builder commandsMap, List<CommandGroup> groups) {
+        CodeBlock.Builder cases = CodeBlock.builder();
+        for (int index = 0; index < groups.size(); index++) {
+            if (groups.get(index).async) {
+                cases.add("case $L:\n", index);
+            }
+        }
 
-        stringBuilder.append("public final class ")
-                .append(generatedClassName)
-                .append(" extends CommandsMap ")
-                .append(START_BLOCK)
-                .append(NEW_LINE);
+        if (cases.build().isEmpty()) {
+            return;
+        }
+
+        commandsMap.addMethod(MethodSpec.methodBuilder("isAsync")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(boolean.class)
+                .addParameter(int.class, "index")
+                .beginControlFlow("switch (index)")
+                .addCode(cases.build())
+                .addCode("$>return true;\n$<")
+                .addCode("default: return false;\n")
+                .endControlFlow()
+                .build());
+    }
 
-        stringBuilder
-                .append(INDENT)
-                .append("public ")
-                .append(generatedClassName)
-                .append("()")
-                .append(START_BLOCK)
-                .append(NEW_LINE);
+    /**
+     * add the {@code cacheSizeOf()} and {@code cacheMillisOf()} methods if there are methods
+     * annotated with {@link Command#cacheable()}, which are read once, when the cache of a
+     * command is created on it's first execution
+     */
+    private void addCacheOf(TypeSpec.Builder commandsMap, List<CommandGroup> groups) {
+        CodeBlock.Builder sizes = CodeBlock.builder();
+        CodeBlock.Builder millis = CodeBlock.builder();
+        for (int index = 0; index < groups.size(); index++) {
+            CommandGroup group = groups.get(index);
+            if (group.cacheable) {
+                sizes.add("case $L: return $L;\n", index, group.cacheSize);
+                if (group.cacheMillis > 0) {
+                    millis.add("case $L: return $LL;\n", index, group.cacheMillis);
+                }
+            }
+        }
 
-        Observable.fromIterable(element.getEnclosedElements())
-                .filter(byAnnotatedMethods())
-                .blockingForEach(addCommand(stringBuilder, originalClassName(element)));
+        if (sizes.build().isEmpty()) {
+            return;
+        }
 
-        stringBuilder.append(INDENT)
-                .append(END_BLOCK)
-                .append(END_BLOCK)
-                .append(NEW_LINE);
+        commandsMap.addMethod(MethodSpec.methodBuilder("cacheSizeOf")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(int.class)
+                .addParameter(int.class, "index")
+                .beginControlFlow("switch (index)")
+                .addCode(sizes.build())
+                .addCode("default: return 0;\n")
+                .endControlFlow()
+                .build());
 
-        return stringBuilder;
+        if (millis.build().isEmpty()) {
+            return;
+        }
+
+        commandsMap.addMethod(MethodSpec.methodBuilder("cacheMillisOf")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(long.class)
+                .addParameter(int.class, "index")
+                .beginControlFlow("switch (index)")
+                .addCode(millis.build())
+                .addCode("default: return 0L;\n")
+                .endControlFlow()
+                .build());
     }
 
-    private String packageName(@NonNull TypeElement element) {
-        return environment.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    /**
+     * add the {@code isKeyPattern()} method, which tells the {@link com.mapper.CommandsRegistry}
+     * the commands that are not found by looking up their {@code keyOf()}
+     */
+    private void addIsKeyPattern(TypeSpec.Builder commandsMap, List<CommandKey> keys) {
+        CodeBlock.Builder cases = CodeBlock.builder();
+        for (CommandKey key : keys) {
+            if (key.type.isPattern()) {
+                cases.add("case $L:\n", key.index);
+            }
+        }
+
+        if (cases.build().isEmpty()) {
+            return;
+        }
+
+        commandsMap.addMethod(MethodSpec.methodBuilder("isKeyPattern")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(boolean.class)
+                .addParameter(int.class, "index")
+                .beginControlFlow("switch (index)")
+                .addCode(cases.build())
+                .addCode("$>return true;\n$<")
+                .addCode("default: return false;\n")
+                .endControlFlow()
+                .build());
     }
 
+    /**
+     * add the {@code commandsCount()} and {@code keyOf()} methods, which are used only to report
+     * the commands, so the keys are boxed when they are read, not when they are executed
+     */
+    private void addKeyOf(TypeSpec.Builder commandsMap, List<CommandKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        commandsMap.addMethod(MethodSpec.methodBuilder("commandsCount")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(int.class)
+                .addStatement("return $L", keys.size())
+                .build());
+
+        int chunksCount = (keys.size() + MAX_CASES_PER_METHOD - 1) / MAX_CASES_PER_METHOD;
+        MethodSpec.Builder keyOf = keyOfMethod("keyOf")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED);
 
-    private Predicate<Element> byAnnotatedMethods() {
-        return new Predicate<Element>() {
-            @Override
-            public boolean test(@NonNull Element element) throws Exception {
-                return element.getAnnotation(Command.class) != null;
+        if (chunksCount == 1) {
+            keyOf.addCode(keyOfBody(keys, 0, keys.size()));
+        } else {
+            CodeBlock.Builder code = CodeBlock.builder()
+                    .beginControlFlow("switch (index / $L)", MAX_CASES_PER_METHOD);
+            for (int i = 0; i < chunksCount; i++) {
+                code.add("case $L: return keyOf$L(index);\n", i, i);
             }
-        };
+            keyOf.addCode(code.add("default: return null;\n").endControlFlow().build());
+        }
+
+        commandsMap.addMethod(keyOf.build());
+
+        if (chunksCount > 1) {
+            for (int i = 0; i < chunksCount; i++) {
+                int from = i * MAX_CASES_PER_METHOD;
+                int to = Math.min(keys.size(), from + MAX_CASES_PER_METHOD);
+                commandsMap.addMethod(keyOfMethod("keyOf" + i)
+                        .addModifiers(Modifier.PRIVATE)
+                        .addCode(keyOfBody(keys, from, to))
+                        .build());
+            }
+        }
+    }
+
+    private MethodSpec.Builder keyOfMethod(String methodName) {
+        return MethodSpec.methodBuilder(methodName)
+                .returns(Object.class)
+                .addParameter(int.class, "index");
+    }
+
+    private CodeBlock keyOfBody(List<CommandKey> keys, int from, int to) {
+        CodeBlock.Builder code = CodeBlock.builder().beginControlFlow("switch (index)");
+        for (int index = from; index < to; index++) {
+            code.add("case $L: return $L;\n", index, keys.get(index).literal());
+        }
+        return code.add("default: return null;\n").endControlFlow().build();
+    }
+
+    private CodeBlock invokeBody(List<CodeBlock> commandBodies, int from, int to,
+                                 ClassName hostClassName, Invoker invoker) {
+        CodeBlock.Builder code = CodeBlock.builder()
+                .addStatement("$T host = getHostObject()", hostClassName)
+                .beginControlFlow("switch (index)");
+
+        for (int index = from; index < to; index++) {
+            code.add("case $L:\n$>", index);
+            if (invoker == Invoker.INVOKE_ALL) {
+                code.beginControlFlow("for (int i = from; i < to; i++)")
+                        .addStatement("Object o1 = parameters[i], o2 = null")
+                        .add(commandBodies.get(index))
+                        .endControlFlow();
+            } else {
+                code.add(commandBodies.get(index));
+            }
+            if (!invoker.returning) {
+                code.addStatement("break");
+            }
+            code.add("$<");
+        }
+
+        code.endControlFlow();
+        if (invoker.returning) {
+            code.addStatement("return null");
+        }
+        return code.build();
+    }
+
+    /**
+     * @return the code that invokes the methods of every command on the host object, in the order
+     * of the commands, it is shared by the {@code invoke()} and {@code invokeAll()} methods, and
+     * after {@link CommandsMap#clear()} it passes the command to the {@link com.mapper.MissHandler}
+     */
+    private List<CodeBlock> commandBodies(List<CommandGroup> groups, Invoker invoker) {
+        List<CodeBlock> commandBodies = new ArrayList<>(groups.size());
+        for (int index = 0; index < groups.size(); index++) {
+            commandBodies.add(commandBody(groups.get(index), index, invoker));
+        }
+        return commandBodies;
     }
 
-    private Consumer<? super Element> addCommand(final StringBuilder stringBuilder,
-                                                 final String className) {
-        return new Consumer<Element>() {
-            @Override
-            public void accept(@NonNull Element element) throws Exception {
+    private CodeBlock commandBody(CommandGroup group, int index, Invoker invoker) {
+        if (invoker != Invoker.TYPED && !invoker.passesAllParameters()
+                && hasPrimitiveParametersAfterTwo(group)) {
+            // the parameters after the second one are not passed to invoke() and call(), and a
+            // primitive parameter can not be passed as null
+            CodeBlock.Builder code = CodeBlock.builder().addStatement("parametersMissing($L)", index);
+            if (invoker.returning) {
+                code.addStatement("return null");
+            }
+            return code.build();
+        }
+        if (invoker.returning) {
+            return CodeBlock.builder()
+                    .beginControlFlow("if (host == null)")
+                    .addStatement("commandCleared($L)", index)
+                    .addStatement("return null")
+                    .endControlFlow()
+                    .add(group.cacheable
+                            ? CodeBlock.builder()
+                            .add(cachedCode(group, index, invoker))
+                            .addStatement("return result$L", index)
+                            .build()
+                            : callPipelineCode(group, invoker))
+                    .build();
+        }
+        return CodeBlock.builder()
+                .beginControlFlow("if (host != null)")
+                .add(group.cacheable ? cachedCode(group, index, invoker) : pipelineCode(group, invoker))
+                .nextControlFlow("else")
+                .addStatement("commandCleared($L)", index)
+                .endControlFlow()
+                .build();
+    }
 
-                ExecutableElement method = (ExecutableElement) element;
-                List<?> parameters = method.getParameters();
+    /**
+     * @return {@code true} if a method of the command takes a primitive parameter after it's
+     * second parameter, so it can be executed only through {@code executeWith()}
+     */
+    private static boolean hasPrimitiveParametersAfterTwo(CommandGroup group) {
+        for (ExecutableElement method : group.methods) {
+            List<? extends VariableElement> parameters = method.getParameters();
+            for (int i = 2; i < parameters.size(); i++) {
+                if (parameters.get(i).asType().getKind().isPrimitive()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-                if (parameters == null || parameters.isEmpty()) {
-                    addCommandBody(element, stringBuilder, zeroParameterBody(method, className));
+    /**
+     * @return the code that reads the value cached for the parameters of a
+     * {@link Command#cacheable()} command into {@code result...}, or invokes it's method and
+     * caches the value it returns if it is not cached, where the missing parameters of the
+     * cache key are {@code null}
+     */
+    private CodeBlock cachedCode(CommandGroup group, int index, Invoker invoker) {
+        ExecutableElement method = group.methods.get(0);
+        CodeBlock.Builder parameters = CodeBlock.builder();
+        for (int i = 0; i < 2; i++) {
+            parameters.add(", ");
+            if (i >= method.getParameters().size()) {
+                parameters.add("null");
+            } else if (invoker == Invoker.TYPED) {
+                parameters.add("p$L", i + 1);
+            } else if (invoker.passesAllParameters()) {
+                parameters.add("parameterAt(parameters, $L)", i);
+            } else {
+                parameters.add("o$L", i + 1);
+            }
+        }
+        return CodeBlock.builder()
+                .addStatement("Object result$L = cachedResult($L$L)", index, index, parameters.build())
+                .beginControlFlow("if (isNotCached(result$L))", index)
+                .addStatement("result$L = cacheResult($L$L, result$L, $L)", index, index,
+                        parameters.build(), index, invocation(method, invoker))
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * @return the code that invokes the methods of a command as set by it's {@link Pipeline}
+     */
+    private CodeBlock pipelineCode(CommandGroup group, Invoker invoker) {
+        List<ExecutableElement> methods = group.methods;
+        CodeBlock.Builder code = CodeBlock.builder();
+        if (methods.size() == 1 || group.pipeline == Pipeline.FAN_OUT) {
+            for (ExecutableElement method : methods) {
+                code.addStatement("$L", invocation(method, invoker));
+            }
+        } else if (group.pipeline == Pipeline.FIRST_MATCH) {
+            // the last method is invoked if all the methods before it did not match
+            CodeBlock.Builder conditions = CodeBlock.builder();
+            for (int i = 0; i < methods.size() - 1; i++) {
+                conditions.add(i == 0 ? "!$L" : "\n$>$>&& !$L$<$<", invocation(methods.get(i), invoker));
+            }
+            code.beginControlFlow("if ($L)", conditions.build())
+                    .addStatement("$L", invocation(methods.get(methods.size() - 1), invoker))
+                    .endControlFlow();
+        } else {
+            for (int i = 0; i < methods.size() - 1; i++) {
+                code.beginControlFlow("try")
+                        .addStatement("$L", invocation(methods.get(i), invoker))
+                        .nextControlFlow("catch (RuntimeException e$L)", i + 1);
+            }
+            code.addStatement("$L", invocation(methods.get(methods.size() - 1), invoker));
+            for (int i = 0; i < methods.size() - 1; i++) {
+                code.endControlFlow();
+            }
+        }
+        return code.build();
+    }
+
+    /**
+     * @return the code that invokes the methods of a command as set by it's {@link Pipeline}, and
+     * returns the value returned by the last invoked method, where a {@link Pipeline#FIRST_MATCH}
+     * that is matched before the last method returns {@code true}
+     */
+    private CodeBlock callPipelineCode(CommandGroup group, Invoker invoker) {
+        List<ExecutableElement> methods = group.methods;
+        ExecutableElement lastMethod = methods.get(methods.size() - 1);
+        CodeBlock.Builder code = CodeBlock.builder();
+        if (methods.size() == 1 || group.pipeline == Pipeline.FAN_OUT) {
+            for (ExecutableElement method : methods.subList(0, methods.size() - 1)) {
+                code.addStatement("$L", invocation(method, invoker));
+            }
+            code.add(returning(lastMethod, invoker));
+        } else if (group.pipeline == Pipeline.FIRST_MATCH) {
+            for (ExecutableElement method : methods.subList(0, methods.size() - 1)) {
+                code.addStatement("if ($L) return true", invocation(method, invoker));
+            }
+            code.add(returning(lastMethod, invoker));
+        } else {
+            for (int i = 0; i < methods.size() - 1; i++) {
+                code.beginControlFlow("try")
+                        .add(returning(methods.get(i), invoker))
+                        .nextControlFlow("catch (RuntimeException e$L)", i + 1);
+            }
+            code.add(returning(lastMethod, invoker));
+            for (int i = 0; i < methods.size() - 1; i++) {
+                code.endControlFlow();
+            }
+        }
+        return code.build();
+    }
+
+    private CodeBlock returning(ExecutableElement method, Invoker invoker) {
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            return CodeBlock.builder()
+                    .addStatement("$L", invocation(method, invoker))
+                    .addStatement("return null")
+                    .build();
+        }
+        return CodeBlock.builder().addStatement("return $L", invocation(method, invoker)).build();
+    }
+
+    /**
+     * @return the invocation of the passed method, where every parameter is passed as set by the
+     * {@link Invoker}, the parameters after the second one are not passed to the
+     * {@code invoke()} and {@code invokeAll()} methods, so they are {@code null}, where the
+     * commands that take primitive parameters after the second one are not invoked through these
+     * methods at all
+     */
+    private CodeBlock invocation(ExecutableElement method, Invoker invoker) {
+        CodeBlock.Builder arguments = CodeBlock.builder();
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            TypeName type = TypeName.get(method.getParameters().get(i).asType());
+            arguments.add(i == 0 ? "" : ", ");
+            if (invoker == Invoker.TYPED) {
+                arguments.add("p$L", i + 1);
+            } else if (invoker.passesAllParameters()) {
+                arguments.add("($T) parameterAt(parameters, $L)", type, i);
+            } else if (i < 2) {
+                arguments.add("($T) o$L", type, i + 1);
+            } else {
+                arguments.add("($T) null", type);
+            }
+        }
+        return CodeBlock.of("host.$L($L)", method.getSimpleName(), arguments.build());
+    }
+
+    /**
+     * add a typed {@code command$...()} method for every command whose methods take the same
+     * parameters, or the first parameters of the same method, which is invoked by the generated
+     * {@code $$Commands} class, the host methods are invoked directly with the typed parameters,
+     * unless the command is async or a {@link com.mapper.CommandsMapListener} is set, where it is
+     * executed through {@code executeCommandWith()}, by the index of it's command, and the
+     * {@link Command#cacheable()} commands read their cached values first
+     */
+    private void addTypedCommands(TypeSpec.Builder commandsMap, List<CommandGroup> groups,
+                                  ClassName hostClassName) {
+        for (int index = 0; index < groups.size(); index++) {
+            CommandGroup group = groups.get(index);
+            ExecutableElement signature = typedSignature(group);
+            if (signature == null) {
+                continue;
+            }
+
+            TypeName returnType = typedReturnType(group);
+            MethodSpec.Builder command = MethodSpec.methodBuilder(typedCommandName(index))
+                    .returns(returnType);
+            CodeBlock.Builder parameters = CodeBlock.builder();
+            for (int i = 0; i < signature.getParameters().size(); i++) {
+                command.addParameter(TypeName.get(signature.getParameters().get(i).asType()), "p" + (i + 1));
+                parameters.add(", p$L", i + 1);
+            }
+
+            if (group.async) {
+                command.addStatement("executeCommandWith($L$L)", index, parameters.build());
+            } else if (!returnType.equals(TypeName.VOID)) {
+                command.beginControlFlow("if (hasListener())");
+                if (returnType.isPrimitive()) {
+                    // queryCommandWith() returns null after clear(), which is not unboxed
+                    command.addStatement("$T value = this.<$T>queryCommandWith($L$L)", returnType.box(),
+                            returnType.box(), index, parameters.build())
+                            .addStatement("return value != null ? value : $L", defaultValue(returnType));
+                } else {
+                    command.addStatement("return this.<$T>queryCommandWith($L$L)", returnType,
+                            index, parameters.build());
+                }
+                command.endControlFlow()
+                        .addStatement("$T host = getHostObject()", hostClassName)
+                        .beginControlFlow("if (host == null)")
+                        .addStatement("commandCleared($L)", index)
+                        .addStatement("return $L", defaultValue(returnType))
+                        .endControlFlow();
+                if (group.cacheable) {
+                    command.addCode(cachedCode(group, index, Invoker.TYPED))
+                            .addStatement("return ($T) result$L", returnType.box(), index);
                 } else {
-                    int parametersCount = parameters.size();
-                    if (parametersCount == 1) {
-                        addCommandBody(element, stringBuilder, oneParameterBody(method, className));
-                    } else if (parametersCount == 2) {
-                        addBiCommandBody(element, stringBuilder, twoParameterBody(method, className));
-                    }
+                    command.addStatement("return $L", invocation(group.methods.get(0), Invoker.TYPED));
                 }
+            } else {
+                command.beginControlFlow("if (hasListener())")
+                        .addStatement("executeCommandWith($L$L)", index, parameters.build())
+                        .addStatement("return")
+                        .endControlFlow()
+                        .addStatement("$T host = getHostObject()", hostClassName)
+                        .addCode(commandBody(group, index, Invoker.TYPED));
+            }
+            commandsMap.addMethod(command.build());
+        }
+    }
+
+    /**
+     * @return the return type of the typed method of the command, which is the return type of
+     * it's method, if it has only one method that is not async, else {@code void}
+     */
+    private TypeName typedReturnType(CommandGroup group) {
+        if (group.async || group.methods.size() > 1) {
+            return TypeName.VOID;
+        }
+        return TypeName.get(group.methods.get(0).getReturnType());
+    }
+
+    /**
+     * @return the value returned by a typed method after {@link CommandsMap#clear()}
+     */
+    private String defaultValue(TypeName type) {
+        if (type.equals(TypeName.BOOLEAN)) {
+            return "false";
+        } else if (type.isPrimitive()) {
+            return "(" + type + ") 0";
+        } else {
+            return "null";
+        }
+    }
+
+    /**
+     * @return the method with the most parameters in the command, if the parameters of every
+     * other method are the first parameters of this method, else {@code null}
+     */
+    private ExecutableElement typedSignature(CommandGroup group) {
+        ExecutableElement signature = group.methods.get(0);
+        for (ExecutableElement method : group.methods) {
+            if (method.getParameters().size() > signature.getParameters().size()) {
+                signature = method;
+            }
+        }
+        for (ExecutableElement method : group.methods) {
+            for (int i = 0; i < method.getParameters().size(); i++) {
+                TypeName type = TypeName.get(method.getParameters().get(i).asType());
+                if (!type.equals(TypeName.get(signature.getParameters().get(i).asType()))) {
+                    return null;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static String typedCommandName(int index) {
+        return "command$" + index;
+    }
+
+    /**
+     * generate the {@code $$Commands} class, which holds a static method for every command that
+     * has a typed {@code command$...()} method, named after the first method of the command, so
+     * it is executed with it's typed parameters, without boxing them or looking up it's key
+     */
+    private JavaFile generateCommands(TypeElement element, List<CommandGroup> groups) {
+        ClassName hostClassName = ClassName.get(element);
+        ClassName commandsMapClassName = ClassName.get(hostClassName.packageName(),
+                element.getSimpleName() + CommandsMap.GENERATED_NAME);
+        TypeSpec.Builder commands = TypeSpec.classBuilder(element.getSimpleName() + GENERATED_COMMANDS_NAME)
+                .addOriginatingElement(element)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+
+        Set<String> signatures = new HashSet<>();
+        for (int index = 0; index < groups.size(); index++) {
+            CommandGroup group = groups.get(index);
+            ExecutableElement signature = typedSignature(group);
+            String methodName = group.methods.get(0).getSimpleName().toString();
+            if (signature == null || !signatures.add(methodName + parameterTypes(signature))) {
+                continue;
+            }
+
+            TypeName returnType = typedReturnType(group);
+            MethodSpec.Builder command = MethodSpec.methodBuilder(methodName)
+                    .addJavadoc("execute the command of the key {@code $L}\n", group.key.literal())
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(returnType)
+                    .addParameter(CommandsMap.class, "commandsMap");
+            CodeBlock.Builder arguments = CodeBlock.builder();
+            for (VariableElement parameter : signature.getParameters()) {
+                command.addParameter(TypeName.get(parameter.asType()), parameter.getSimpleName().toString());
+                arguments.add(arguments.build().isEmpty() ? "$L" : ", $L", parameter.getSimpleName());
             }
-        };
-    }
-
-    private void addCommandBody(@NonNull Element element,
-                                StringBuilder stringBuilder,
-                                String commandBody) {
-        
-        stringBuilder
-                .append(INDENT)
-                .append(INDENT)
-                .append("addCommand(")
-                .append(parseKeyFromCommandAnnotation(element))
-                .append(", ")
-                .append("new Command(){")
-                .append(NEW_LINE)
-                .append(INDENT)
-                .append(INDENT)
-                .append(INDENT)
-                .append("public void accept(Object o1){")
-                .append(NEW_LINE)
-                .append(commandBody)
-                .append(INDENT)
-                .append(INDENT)
-                .append(INDENT)
-                .append("}")
-                .append(NEW_LINE)
-                .append(INDENT)
-                .append(INDENT)
-                .append("}")
-                .append(END_METHOD_CALL)
-                .append(NEW_LINE);
-    }
-
-    private String zeroParameterBody(ExecutableElement element, String className) {
-        Name methodName = element.getSimpleName();
-        return bodyPrefix(methodName, className) + "()" + END_LINE + bodyPostfix(methodName, className);
-    }
-
-    private String oneParameterBody(ExecutableElement element, String className) {
-        Name methodName = element.getSimpleName();
-        String typeCast = element.getParameters().get(0).asType().toString();
-        return bodyPrefix(methodName, className) + "((" + typeCast + ")o1)" + END_LINE +
-                bodyPostfix(methodName, className);
-    }
-
-    private void addBiCommandBody(Element element,
-                                  StringBuilder stringBuilder,
-                                  String commandBody) {
-
-        stringBuilder.append(INDENT)
-                .append(INDENT)
-                .append("addBiCommand(")
-                .append(parseKeyFromCommandAnnotation(element))
-                .append(", ")
-                .append("new BiCommand(){")
-                .append(NEW_LINE)
-                .append(INDENT)
-                .append(INDENT)
-                .append(INDENT)
-                .append("public void accept(Object o1, Object o2){")
-                .append(NEW_LINE)
-                .append(commandBody)
-                .append(INDENT)
-                .append(INDENT)
-                .append(INDENT)
-                .append("}")
-                .append(NEW_LINE)
-                .append(INDENT)
-                .append(INDENT)
-                .append("}")
-                .append(END_METHOD_CALL)
-                .append(NEW_LINE);
-    }
-
-    private String twoParameterBody(ExecutableElement element, String className) {
-        Name methodName = element.getSimpleName();
-        String typeCastOne = element.getParameters().get(0).asType().toString();
-        String typeCastTwo = element.getParameters().get(1).asType().toString();
-        return bodyPrefix(methodName, className)
-                + "((" + typeCastOne + ")o1, (" + typeCastTwo + ")o2)" + END_LINE +
-                bodyPostfix(methodName, className);
-    }
-
-    private Object parseKeyFromCommandAnnotation(@NonNull Element element) {
-
-        Command annotation = element.getAnnotation(Command.class);
+            commands.addMethod(command.addStatement("$L(($T) commandsMap).$L($L)",
+                    returnType.equals(TypeName.VOID) ? "" : "return ", commandsMapClassName,
+                    typedCommandName(index), arguments.build()).build());
+        }
+
+        return JavaFile.builder(hostClassName.packageName(), commands.build()).build();
+    }
+
+    private List<TypeName> parameterTypes(ExecutableElement method) {
+        List<TypeName> types = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            types.add(TypeName.get(parameter.asType()));
+        }
+        return types;
+    }
+
+    private CommandKey parseKeyFromCommandAnnotation(Element element, Command annotation, int index) {
 
         Object key = annotation.value();
         if (!key.equals(NULL_INTEGER)) {
-            return key;
+            return new CommandKey(CommandKey.Type.INT, key, index);
         }
 
         key = annotation.keyString();
         if (!key.equals(NULL_STRING)) {
-            return "\"" + key + "\"";
+            return new CommandKey(CommandKey.Type.STRING, key, index);
+        }
+
+        key = annotation.keyPrefix();
+        if (!key.equals(NULL_STRING)) {
+            if (((String) key).isEmpty()) {
+                throw new IllegalArgumentException("@" + Command.class.getSimpleName()
+                        + " can not have an empty keyPrefix : " + element.getSimpleName() + "()");
+            }
+            return new CommandKey(CommandKey.Type.PREFIX, key, index);
+        }
+
+        if (annotation.keyFrom() != NULL_INTEGER || annotation.keyTo() != NULL_INTEGER) {
+            if (annotation.keyFrom() == NULL_INTEGER || annotation.keyTo() == NULL_INTEGER
+                    || annotation.keyFrom() > annotation.keyTo()) {
+                throw new IllegalArgumentException("@" + Command.class.getSimpleName()
+                        + " must have a keyFrom and a keyTo, where keyFrom is not greater than keyTo : "
+                        + element.getSimpleName() + "()");
+            }
+            return CommandKey.range(annotation.keyFrom(), annotation.keyTo(), index);
         }
 
         key = annotation.keyLong();
         if (!key.equals(NULL_LONG)) {
-            return key + "L";
+            return new CommandKey(CommandKey.Type.LONG, key, index);
         }
 
         key = annotation.keyDouble();
         if (!key.equals(NULL_DOUBLE)) {
-            return key + "D";
+            return new CommandKey(CommandKey.Type.DOUBLE, key, index);
         }
 
         key = annotation.keyFloat();
         if (!key.equals(NULL_FLOAT)) {
-            return key + "F";
+            return new CommandKey(CommandKey.Type.FLOAT, key, index);
+        }
+
+        key = annotation.keyEnum();
+        if (!key.equals(NULL_STRING)) {
+            return enumKey(element, typeElementOf(enumType(annotation)), (String) key, index);
+        }
+
+        TypeElement keyClass = typeElementOf(keyClass(annotation));
+        if (keyClass == null) {
+            throw new IllegalArgumentException("@" + Command.class.getSimpleName()
+                    + " must have a class or an interface in keyClass : "
+                    + element.getSimpleName() + "()");
+        } else if (!keyClass.getQualifiedName().contentEquals(Void.class.getName())) {
+            return new CommandKey(CommandKey.Type.CLASS,
+                    environment.getElementUtils().getBinaryName(keyClass).toString(),
+                    ClassName.get(keyClass), index);
         }
 
         throw new IllegalArgumentException("@" + Command.class.getSimpleName()
                 + " must have a value in : " + element.getSimpleName() + "()");
     }
 
-    private String bodyPrefix(Name methodName, String className) {
-        return INDENT + INDENT + INDENT + INDENT +
-                "if(getHostObject() != null){"
-                + NEW_LINE
-                + INDENT + INDENT + INDENT + INDENT + INDENT
-                + "((" + className + ")getHostObject())." + methodName;
+    private CommandKey enumKey(Element element, TypeElement enumType, String constant, int index) {
+        if (enumType == null || enumType.getKind() != ElementKind.ENUM) {
+            throw new IllegalArgumentException("@" + Command.class.getSimpleName()
+                    + " with a keyEnum must have it's enum in enumType : "
+                    + element.getSimpleName() + "()");
+        }
+        for (Element enclosedElement : enumType.getEnclosedElements()) {
+            if (enclosedElement.getKind() == ElementKind.ENUM_CONSTANT
+                    && enclosedElement.getSimpleName().contentEquals(constant)) {
+                return new CommandKey(CommandKey.Type.ENUM, constant, ClassName.get(enumType), index);
+            }
+        }
+        throw new IllegalArgumentException(enumType.getSimpleName() + " has no constant named "
+                + constant + " : " + element.getSimpleName() + "()");
     }
 
-    private String bodyPostfix(Name methodName, String className) {
-        return INDENT + INDENT + INDENT + INDENT +
-                "} else { "
-                + NEW_LINE
-                + INDENT + INDENT + INDENT + INDENT + INDENT
-                + "java.lang.System.out.println(\" " + CommandsMap.class.getSimpleName() + " cleared for "
-                + className + "." + methodName + "() \"); "
-                + NEW_LINE
-                + INDENT + INDENT + INDENT + INDENT
-                + "}"
-                + NEW_LINE;
+    /**
+     * the {@code Class} members of an annotation are usually not readable while processing, as
+     * their classes may not be compiled yet, so their types are read from the thrown
+     * {@link MirroredTypeException}
+     */
+    private TypeMirror enumType(Command annotation) {
+        try {
+            return typeOf(annotation.enumType());
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+    }
+
+    private TypeMirror keyClass(Command annotation) {
+        try {
+            return typeOf(annotation.keyClass());
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
     }
 
+    private TypeMirror typeOf(Class<?> type) {
+        return environment.getElementUtils().getTypeElement(type.getCanonicalName()).asType();
+    }
+
+    /**
+     * @return the class or interface of the passed type, or {@code null} for the other types
+     */
+    private static TypeElement typeElementOf(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
 
 }
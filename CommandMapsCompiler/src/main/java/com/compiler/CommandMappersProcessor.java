@@ -3,6 +3,9 @@ package com.compiler;
 import com.google.auto.service.AutoService;
 import com.annotations.CommandsMapFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -10,7 +13,10 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
 
 import static java.util.Collections.singleton;
 
@@ -18,7 +24,22 @@ import static java.util.Collections.singleton;
 public class CommandMappersProcessor extends AbstractProcessor
 {
 
+    /**
+     * the package of the generated {@link com.mapper.CommandsMapsIndex}, if not set, no index
+     * is generated
+     */
+    static final String OPTION_INDEX_PACKAGE = "commandsMapsIndexPackage";
+
+    /**
+     * this processor is declared as a dynamic incremental processor for Gradle, every generated
+     * {@link com.mapper.CommandsMap} depends only on it's annotated class, so the processor is
+     * isolating, unless the index is generated, which depends on all the annotated classes
+     */
+    private static final String OPTION_ISOLATING = "org.gradle.annotation.processing.isolating";
+    private static final String OPTION_AGGREGATING = "org.gradle.annotation.processing.aggregating";
+
     private ProcessingEnvironment processingEnvironment;
+    private boolean indexGenerated;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnvironment) {
@@ -31,6 +52,19 @@ public class CommandMappersProcessor extends AbstractProcessor
         return singleton(CommandsMapFactory.class.getCanonicalName());
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> options = new HashSet<>();
+        options.add(OPTION_INDEX_PACKAGE);
+        if (processingEnvironment != null
+                && processingEnvironment.getOptions().containsKey(OPTION_INDEX_PACKAGE)) {
+            options.add(OPTION_AGGREGATING);
+        } else {
+            options.add(OPTION_ISOLATING);
+        }
+        return options;
+    }
+
     @Override
     public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latestSupported();
@@ -38,7 +72,38 @@ public class CommandMappersProcessor extends AbstractProcessor
 
     @Override
     public boolean process(Set<? extends TypeElement> set, RoundEnvironment roundEnvironment) {
-        return !roundEnvironment.processingOver() &&
-                new Processing(processingEnvironment).test(set, roundEnvironment);
+        if (roundEnvironment.processingOver()) {
+            return false;
+        }
+        generateIndex(roundEnvironment);
+        return new Processing(processingEnvironment).test(set, roundEnvironment);
+    }
+
+    /**
+     * generate the index once, in the first round that has classes annotated with
+     * {@link CommandsMapFactory}, classes that are generated in later rounds by other processors
+     * are still created through reflections
+     */
+    private void generateIndex(RoundEnvironment roundEnvironment) {
+        String indexPackage = processingEnvironment.getOptions().get(OPTION_INDEX_PACKAGE);
+        if (indexPackage == null || indexGenerated) {
+            return;
+        }
+
+        List<TypeElement> elements = new ArrayList<>();
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(CommandsMapFactory.class)) {
+            if (element.getKind().equals(ElementKind.CLASS)) {
+                elements.add((TypeElement) element);
+            }
+        }
+
+        if (!elements.isEmpty()) {
+            indexGenerated = true;
+            try {
+                new CommandsMapsIndexGenerator(processingEnvironment, indexPackage).accept(elements);
+            } catch (Exception e) {
+                processingEnvironment.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+            }
+        }
     }
 }
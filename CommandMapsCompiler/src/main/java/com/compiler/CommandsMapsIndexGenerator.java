@@ -0,0 +1,90 @@
+package com.compiler;
+
+import com.mapper.CommandsMap;
+import com.mapper.CommandsMapsIndex;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * generates the {@link CommandsMapsIndex} of the classes annotated with
+ * {@link com.annotations.CommandsMapFactory}, which holds a {@code switch} on the class name that
+ * creates the generated {@link CommandsMap} through it's constructor
+ * <p>
+ * the created instance is held in an {@code Object} variable, and cast once to
+ * {@link CommandsMap} after the {@code switch}, as returning every generated class as a
+ * {@link CommandsMap} makes the byte code verifier load all of them to check that they extend
+ * {@link CommandsMap}, when the index is first used, so the startup would load every generated
+ * class of the index rather than the created one
+ */
+class CommandsMapsIndexGenerator {
+
+    private final ProcessingEnvironment environment;
+    private final String packageName;
+
+    CommandsMapsIndexGenerator(ProcessingEnvironment environment, String packageName) {
+        this.environment = environment;
+        this.packageName = packageName;
+    }
+
+    /**
+     * generate the index of the passed classes, all of them are the originating elements of the
+     * index, so it is regenerated when any of them changes
+     */
+    void accept(List<TypeElement> elements) {
+        try {
+            generateCode(elements).writeTo(environment.getFiler());
+        } catch (IOException e) {
+            environment.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to generate "
+                    + packageName + "." + CommandsMapsIndex.GENERATED_NAME + " : " + e.getMessage());
+        }
+    }
+
+    private JavaFile generateCode(List<TypeElement> elements) {
+        TypeSpec.Builder index = TypeSpec.classBuilder(CommandsMapsIndex.GENERATED_NAME)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(CommandsMapsIndex.class);
+
+        CodeBlock.Builder code = CodeBlock.builder()
+                .addStatement("$T commandsMap", Object.class)
+                .beginControlFlow("switch (commandsMapFactoryClass.getName())");
+        for (TypeElement element : elements) {
+            index.addOriginatingElement(element);
+            code.add("case $S: commandsMap = new $T(); break;\n",
+                    environment.getElementUtils().getBinaryName(element).toString(),
+                    generatedClassName(element));
+        }
+        code.add("default: return null;\n")
+                .endControlFlow()
+                .addStatement("return ($T) commandsMap", CommandsMap.class);
+
+        index.addMethod(MethodSpec.methodBuilder("newCommandsMap")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(CommandsMap.class)
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class),
+                        WildcardTypeName.subtypeOf(Object.class)), "commandsMapFactoryClass")
+                .addCode(code.build())
+                .build());
+
+        return JavaFile.builder(packageName, index.build()).build();
+    }
+
+    private ClassName generatedClassName(TypeElement element) {
+        String packageName = environment.getElementUtils().getPackageOf(element)
+                .getQualifiedName().toString();
+        return ClassName.get(packageName, element.getSimpleName() + CommandsMap.GENERATED_NAME);
+    }
+}
@@ -0,0 +1,94 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * a trie of the {@link com.annotations.Command#keyPrefix() key prefixes} of a class, which is
+ * generated as the chars of a {@code String}, in the layout read by
+ * {@code CommandsMap.indexOfPrefix(String, char[])}, so the longest prefix of a key is found
+ * through one binary search in the edges of a node for every char of the key, however many
+ * prefixes the class has
+ */
+class KeyPrefixesTrie {
+
+    /**
+     * the generated {@code String} is a constant of the class file, that is limited to 65535
+     * bytes, where a char takes 3 bytes at most
+     */
+    private static final int MAX_CHARS = 0xFFFF / 3;
+
+    private final List<Map<Character, Integer>> edges = new ArrayList<>();
+    private final List<Integer> commands = new ArrayList<>();
+
+    private KeyPrefixesTrie() {
+        addNode();
+    }
+
+    /**
+     * @param prefixes the prefix keys of a class, each prefix is passed once
+     * @return the chars of the trie of the passed prefixes, or {@code null} if they are too
+     * many to be generated as a {@code String}, or their commands are too many to be generated
+     * as chars
+     */
+    static CharSequence of(List<CommandKey> prefixes) {
+        KeyPrefixesTrie trie = new KeyPrefixesTrie();
+        for (CommandKey prefix : prefixes) {
+            if (prefix.index >= Character.MAX_VALUE) {
+                return null;
+            }
+            trie.add((String) prefix.value, prefix.index);
+        }
+        return trie.chars();
+    }
+
+    private int addNode() {
+        edges.add(new TreeMap<Character, Integer>());
+        commands.add(0);
+        return edges.size() - 1;
+    }
+
+    private void add(String prefix, int index) {
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            Integer nextNode = edges.get(node).get(prefix.charAt(i));
+            if (nextNode == null) {
+                nextNode = addNode();
+                edges.get(node).put(prefix.charAt(i), nextNode);
+            }
+            node = nextNode;
+        }
+        commands.set(node, index + 1);
+    }
+
+    private CharSequence chars() {
+        int nodesCount = edges.size();
+        int edgesCount = nodesCount - 1;
+        if (1 + nodesCount + 1 + nodesCount + edgesCount * 2 > MAX_CHARS) {
+            return null;
+        }
+
+        StringBuilder firstEdges = new StringBuilder();
+        StringBuilder nodesCommands = new StringBuilder();
+        StringBuilder edgesChars = new StringBuilder();
+        StringBuilder edgesTargets = new StringBuilder();
+        for (int node = 0; node < nodesCount; node++) {
+            firstEdges.append((char) edgesChars.length());
+            nodesCommands.append((char) (int) commands.get(node));
+            for (Map.Entry<Character, Integer> edge : edges.get(node).entrySet()) {
+                edgesChars.append(edge.getKey());
+                edgesTargets.append((char) (int) edge.getValue());
+            }
+        }
+        firstEdges.append((char) edgesChars.length());
+
+        return new StringBuilder()
+                .append((char) nodesCount)
+                .append(firstEdges)
+                .append(nodesCommands)
+                .append(edgesChars)
+                .append(edgesTargets);
+    }
+}
@@ -0,0 +1,161 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * a minimal perfect hash of the {@code String} keys of a class, built through the "hash and
+ * displace" technique, where the keys are hashed to buckets by their {@link String#hashCode()},
+ * and every bucket has a seed that displaces it's keys to free slots, so every key has a slot of
+ * it's own, and the slots are as many as the keys
+ * <p>
+ * the generated {@code indexOfString()} computes the slot of the passed key like
+ * {@link #bucketOf(int, int)} and {@link #slotOf(int, int, int)}, then compares the key to the
+ * only key of this slot in an array, so every lookup is one hash and one equality check, whatever
+ * the number of keys
+ */
+class StringKeysHash {
+
+    static final int BUCKET_MULTIPLIER = 0x9E3779B9;
+    static final int SLOT_MULTIPLIER = 0x85EBCA6B;
+
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MIN_BUCKETS = 2;
+
+    /**
+     * the keys are generated in an array initializer, which takes 8 bytes of the static
+     * initializer for every key, where a static initializer is limited to 64 KB of byte code, so
+     * larger key sets are generated as a {@code switch}
+     */
+    private static final int MAX_KEYS = 6000;
+
+    /**
+     * the seeds and the indexes of the commands are generated as the chars of a {@code String}
+     */
+    private static final int MAX_SEED = Character.MAX_VALUE;
+
+    final int bucketShift;
+    final int[] seeds;
+    final CommandKey[] slots;
+
+    private StringKeysHash(int bucketShift, int[] seeds, CommandKey[] slots) {
+        this.bucketShift = bucketShift;
+        this.seeds = seeds;
+        this.slots = slots;
+    }
+
+    /**
+     * @param keys the {@code String} keys of a class, each key is passed once
+     * @return the perfect hash of the passed keys, or {@code null} if two of the keys has the
+     * same hash code, or if they are too many to be hashed, or their commands are too many to be
+     * generated as chars
+     */
+    static StringKeysHash of(List<CommandKey> keys) {
+        if (keys.size() > MAX_KEYS || !hasUniqueHashCodes(keys)) {
+            return null;
+        }
+
+        int buckets = Math.max(MIN_BUCKETS, Integer.highestOneBit(
+                (keys.size() + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET * 2 - 1));
+
+        int bucketShift = Integer.numberOfLeadingZeros(buckets) + 1;
+        List<List<CommandKey>> bucketsKeys = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            bucketsKeys.add(new ArrayList<CommandKey>());
+        }
+        for (CommandKey key : keys) {
+            bucketsKeys.get(bucketOf(key.value.hashCode(), bucketShift)).add(key);
+        }
+
+        List<Integer> largestBuckets = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            largestBuckets.add(i);
+        }
+        Collections.sort(largestBuckets, bySize(bucketsKeys));
+
+        int[] seeds = new int[buckets];
+        CommandKey[] slots = new CommandKey[keys.size()];
+        for (int bucket : largestBuckets) {
+            List<CommandKey> bucketKeys = bucketsKeys.get(bucket);
+            if (bucketKeys.isEmpty()) {
+                break;
+            }
+            int seed = displace(bucketKeys, slots);
+            if (seed < 0) {
+                return null;
+            }
+            seeds[bucket] = seed;
+        }
+        return new StringKeysHash(bucketShift, seeds, slots);
+    }
+
+    private static boolean hasUniqueHashCodes(List<CommandKey> keys) {
+        Set<Integer> hashCodes = new HashSet<>();
+        for (CommandKey key : keys) {
+            if (key.index > Character.MAX_VALUE || !hashCodes.add(key.value.hashCode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Comparator<Integer> bySize(final List<List<CommandKey>> bucketsKeys) {
+        return new Comparator<Integer>() {
+            @Override
+            public int compare(Integer bucketOne, Integer bucketTwo) {
+                return Integer.compare(bucketsKeys.get(bucketTwo).size(), bucketsKeys.get(bucketOne).size());
+            }
+        };
+    }
+
+    /**
+     * find the first seed that puts all the keys of a bucket in free slots, and put them there
+     *
+     * @return the seed of the bucket, or {@code -1} if no seed was found
+     */
+    private static int displace(List<CommandKey> bucketKeys, CommandKey[] slots) {
+        int[] bucketSlots = new int[bucketKeys.size()];
+        for (int seed = 0; seed <= MAX_SEED; seed++) {
+            if (isFree(bucketKeys, seed, slots, bucketSlots)) {
+                for (int i = 0; i < bucketSlots.length; i++) {
+                    slots[bucketSlots[i]] = bucketKeys.get(i);
+                }
+                return seed;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isFree(List<CommandKey> bucketKeys, int seed, CommandKey[] slots,
+                                  int[] bucketSlots) {
+        for (int i = 0; i < bucketSlots.length; i++) {
+            int slot = slotOf(bucketKeys.get(i).value.hashCode(), seed, slots.length);
+            if (slots[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (bucketSlots[j] == slot) {
+                    return false;
+                }
+            }
+            bucketSlots[i] = slot;
+        }
+        return true;
+    }
+
+    static int bucketOf(int hash, int bucketShift) {
+        return (hash * BUCKET_MULTIPLIER) >>> bucketShift;
+    }
+
+    /**
+     * @return the slot of a hash code, where the high bits of the seeded hash code are
+     * multiplied by the number of slots, so every slot is reached without a division
+     */
+    static int slotOf(int hash, int seed, int slotsCount) {
+        return (int) ((((hash ^ seed) * SLOT_MULTIPLIER) & 0xFFFFFFFFL) * slotsCount >>> 32);
+    }
+}
@@ -2,6 +2,8 @@ package com.tere.playground;
 
 import android.app.Application;
 
+import com.mapper.CommandsMap;
+
 
 /**
  * Created by Ahmed Adel Ismail on 5/12/2017.
@@ -13,7 +15,7 @@ public class MainApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
-
+        CommandsMap.addIndex(new CommandsMaps$$Index());
     }
 
 }
@@ -37,8 +37,8 @@ public class TestActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
         commandsMap.execute("0");
-        commandsMap.execute(1L, "test >>> 1");
-        commandsMap.execute(2, "test >>> 2", "<<<<<");
+        commandsMap.executeLong(1L, "test >>> 1");
+        commandsMap.executeInt(2, "test >>> 2", "<<<<<");
     }
 
     @Command(keyString = "0")